@@ -0,0 +1,136 @@
+package com.example.testing.benchmark;
+
+import com.example.testing.model.Subject;
+import com.example.testing.model.User;
+import com.example.testing.model.UserRole;
+import com.example.testing.model.attempt.AttemptAnswer;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.test.Option;
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import com.example.testing.payload.attempt.AttemptAnswerDto;
+import com.example.testing.payload.attempt.AttemptDto;
+import com.example.testing.payload.attempt.AttemptQuestionDto;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Builds synthetic entity graphs for benchmarks
+ */
+final class BenchmarkData {
+    static final int OPTIONS_PER_QUESTION = 4;
+
+    private BenchmarkData() {
+    }
+
+    static User buildUser(String id, UserRole role) {
+        return User.builder()
+                .id(id)
+                .firstName("John")
+                .lastName("Doe")
+                .email(id + "@mail.com")
+                .role(role)
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Build test with given number of questions, each question has two correct options out of four
+     *
+     * @param numberOfQuestions number of questions
+     * @return test
+     */
+    static Test buildTest(int numberOfQuestions) {
+        Subject subject = Subject.builder()
+                .id("subject")
+                .educator(buildUser("educator", UserRole.EDUCATOR))
+                .name("Subject")
+                .build();
+
+        long optionId = 1;
+        Set<Question> questions = new HashSet<>();
+        for (long questionId = 1; questionId <= numberOfQuestions; questionId++) {
+            Set<Option> options = new HashSet<>();
+            for (int i = 0; i < OPTIONS_PER_QUESTION; i++) {
+                options.add(Option.builder()
+                        .id(optionId++)
+                        .option("Option " + i + " of the question " + questionId)
+                        .correct(i % 2 == 0)
+                        .build());
+            }
+
+            questions.add(Question.builder()
+                    .id(questionId)
+                    .question("What is the correct answer to the question " + questionId + "?")
+                    .options(options)
+                    .build());
+        }
+
+        return Test.builder()
+                .id("test-" + numberOfQuestions)
+                .subject(subject)
+                .name("Test")
+                .questions(questions)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Build attempt of the given test that answers every question with its first option
+     *
+     * @param test test to attempt
+     * @return attempt result
+     */
+    static AttemptResult buildAttempt(Test test) {
+        Set<AttemptQuestion> attemptQuestions = new HashSet<>();
+        for (Question question : test.getQuestions()) {
+            Option option = question.getOptions().iterator().next();
+
+            attemptQuestions.add(AttemptQuestion.builder()
+                    .question(question)
+                    .answers(Set.of(AttemptAnswer.builder().option(option).correct(option.isCorrect()).build()))
+                    .score(option.isCorrect() ? 1 : 0)
+                    .maxScore(2)
+                    .build());
+        }
+
+        return AttemptResult.builder()
+                .id("attempt")
+                .user(buildUser("student", UserRole.STUDENT))
+                .test(test)
+                .attemptQuestions(attemptQuestions)
+                .score(0)
+                .maxScore(attemptQuestions.size() * 2)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Build submission to the given test that answers every question with its first correct option
+     *
+     * @param test test to attempt
+     * @return attempt details
+     */
+    static AttemptDto buildAttemptDto(Test test) {
+        Set<AttemptQuestionDto> questions = new HashSet<>();
+        for (Question question : test.getQuestions()) {
+            Option option = question.getOptions().stream()
+                    .filter(Option::isCorrect)
+                    .findFirst()
+                    .orElseThrow();
+
+            questions.add(AttemptQuestionDto.builder()
+                    .questionId(question.getId())
+                    .answers(Set.of(AttemptAnswerDto.builder().optionId(option.getId()).build()))
+                    .build());
+        }
+
+        return AttemptDto.builder().questions(questions).build();
+    }
+}
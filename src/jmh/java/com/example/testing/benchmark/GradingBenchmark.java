@@ -0,0 +1,82 @@
+package com.example.testing.benchmark;
+
+import com.example.testing.mapper.AttemptMapper;
+import com.example.testing.mapper.TestMapper;
+import com.example.testing.model.User;
+import com.example.testing.model.UserRole;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.id.TimeOrderedUuid;
+import com.example.testing.model.test.Test;
+import com.example.testing.payload.attempt.AttemptDto;
+import com.example.testing.payload.attempt.AttemptResultDto;
+import com.example.testing.service.cache.TestSnapshot;
+import com.example.testing.service.grading.AnswerKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading of a submitted attempt, alone and together with building the attempt and mapping the result
+ * as AttemptServiceImpl.processAttempt does between loading the snapshot and saving the attempt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GradingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int questions;
+
+    Test test;
+    TestSnapshot snapshot;
+    AttemptDto attemptDto;
+    User user;
+
+    AttemptMapper attemptMapper;
+
+    @Setup
+    public void setUp() {
+        test = BenchmarkData.buildTest(questions);
+        snapshot = TestSnapshot.of(test, null);
+        attemptDto = BenchmarkData.buildAttemptDto(test);
+        user = BenchmarkData.buildUser("student", UserRole.STUDENT);
+
+        attemptMapper = new AttemptMapper(new TestMapper());
+    }
+
+    @Benchmark
+    public AnswerKey compileAnswerKey() {
+        return AnswerKey.compile(test);
+    }
+
+    @Benchmark
+    public Set<AttemptQuestion> grade() {
+        return snapshot.getAnswerKey().grade(attemptDto.getQuestions());
+    }
+
+    @Benchmark
+    public AttemptResultDto gradeAndMap() {
+        AnswerKey answerKey = snapshot.getAnswerKey();
+        Set<AttemptQuestion> attemptQuestions = answerKey.grade(attemptDto.getQuestions());
+
+        int score = 0;
+        for (AttemptQuestion question : attemptQuestions) {
+            score += question.getScore();
+        }
+
+        AttemptResult attempt = AttemptResult.builder()
+                .id(TimeOrderedUuid.generate())
+                .user(user)
+                .test(snapshot.getTest())
+                .attemptQuestions(attemptQuestions)
+                .score(score)
+                .maxScore(answerKey.getMaxScore())
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        return attemptMapper.toAttemptResultDto(attempt);
+    }
+}
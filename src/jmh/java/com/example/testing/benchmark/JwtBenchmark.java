@@ -0,0 +1,38 @@
+package com.example.testing.benchmark;
+
+import com.example.testing.model.User;
+import com.example.testing.model.UserRole;
+import com.example.testing.service.impl.JwtServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verification of the tokens issued on sign in
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    JwtServiceImpl jwtService;
+    User user;
+    String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtServiceImpl("jwt.benchmark.secret.key", 10080);
+        user = BenchmarkData.buildUser("student", UserRole.STUDENT);
+        token = jwtService.createToken(user);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtService.createToken(user);
+    }
+
+    @Benchmark
+    public String decodeToken() {
+        return jwtService.decodeToken(token);
+    }
+}
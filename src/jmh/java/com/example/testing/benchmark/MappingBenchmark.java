@@ -0,0 +1,65 @@
+package com.example.testing.benchmark;
+
+import com.example.testing.mapper.AttemptMapper;
+import com.example.testing.mapper.TestMapper;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.test.Test;
+import com.example.testing.payload.attempt.AttemptResultDto;
+import com.example.testing.payload.test.TestDto;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares hand-written mappers with the reflective ModelMapper they replaced
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MappingBenchmark {
+
+    @Param({"10", "100"})
+    int questions;
+
+    Test test;
+    AttemptResult attempt;
+
+    ModelMapper modelMapper;
+    TestMapper testMapper;
+    AttemptMapper attemptMapper;
+
+    @Setup
+    public void setUp() {
+        test = BenchmarkData.buildTest(questions);
+        attempt = BenchmarkData.buildAttempt(test);
+
+        // same configuration the application used before
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STANDARD);
+
+        testMapper = new TestMapper();
+        attemptMapper = new AttemptMapper(testMapper);
+    }
+
+    @Benchmark
+    public TestDto modelMapperTest() {
+        return modelMapper.map(test, TestDto.class);
+    }
+
+    @Benchmark
+    public TestDto testMapper() {
+        return testMapper.toTestDto(test);
+    }
+
+    @Benchmark
+    public AttemptResultDto modelMapperAttempt() {
+        return modelMapper.map(attempt, AttemptResultDto.class);
+    }
+
+    @Benchmark
+    public AttemptResultDto attemptMapper() {
+        return attemptMapper.toAttemptResultDto(attempt);
+    }
+}
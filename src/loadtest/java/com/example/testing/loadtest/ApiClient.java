@@ -0,0 +1,125 @@
+package com.example.testing.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Blocking client of the application rest api, shared by all load test workers
+ */
+final class ApiClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    ObjectNode object() {
+        return objectMapper.createObjectNode();
+    }
+
+    void signUp(String email, String password, String role) throws IOException, InterruptedException {
+        ObjectNode user = object()
+                .put("firstName", "Load")
+                .put("lastName", "Test")
+                .put("email", email)
+                .put("password", password)
+                .put("role", role);
+
+        send(post("/api/auth/signup", null, user));
+    }
+
+    String signIn(String email, String password) throws IOException, InterruptedException {
+        ObjectNode request = object().put("email", email).put("password", password);
+
+        return send(post("/api/auth/signin", null, request)).get("token").asText();
+    }
+
+    String createSubject(String token, String name) throws IOException, InterruptedException {
+        ObjectNode subject = object().put("name", name).put("description", "Created by the load test");
+
+        return send(post("/api/subjects", token, subject)).get("id").asText();
+    }
+
+    JsonNode createTest(String token, String subjectId, int questions, int optionsPerQuestion) throws IOException, InterruptedException {
+        ObjectNode test = object().put("subjectId", subjectId).put("name", "Load test exam");
+
+        ArrayNode questionNodes = test.putArray("questions");
+        for (int q = 0; q < questions; q++) {
+            ObjectNode question = questionNodes.addObject().put("question", "Question " + q + "?");
+
+            ArrayNode options = question.putArray("options");
+            for (int o = 0; o < optionsPerQuestion; o++) {
+                options.addObject().put("option", "Option " + o + " of the question " + q).put("correct", o == 0);
+            }
+        }
+
+        return send(post("/api/tests", token, test));
+    }
+
+    JsonNode getExam(String token, String testId) throws IOException, InterruptedException {
+        return send(get("/api/tests/" + testId + "/exam", token));
+    }
+
+    JsonNode submitAttempt(String token, String testId, JsonNode attempt) throws IOException, InterruptedException {
+        return send(post("/api/tests/" + testId + "/attempts", token, attempt));
+    }
+
+    JsonNode getAttemptsByTestId(String token, String testId, int page, int limit) throws IOException, InterruptedException {
+        String query = "?testId=" + URLEncoder.encode(testId, StandardCharsets.UTF_8) + "&page=" + page + "&limit=" + limit;
+
+        return send(get("/api/attempts" + query, token));
+    }
+
+    private HttpRequest post(String path, String token, JsonNode body) throws IOException {
+        return request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+
+        return builder;
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.method() + " " + request.uri().getPath() + " returned " + response.statusCode());
+        }
+
+        byte[] body = response.body();
+        return body.length == 0 ? objectMapper.nullNode() : objectMapper.readTree(body);
+    }
+}
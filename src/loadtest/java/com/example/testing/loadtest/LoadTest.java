@@ -0,0 +1,172 @@
+package com.example.testing.loadtest;
+
+import com.example.testing.TestingApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives the exam lifecycle against the application and reports latency percentiles and throughput:
+ * students sign up and sign in at once, fetch the exam, submit attempts and the educator lists the attempts.
+ * <p>
+ * Runs against the application at loadtest.baseUrl or starts it in-process on in-memory H2,
+ * once for every request thread mode in loadtest.threads, so platform and virtual threads can be compared
+ */
+public final class LoadTest {
+    private static final String PASSWORD = "load-test-password";
+    private static final int OPTIONS_PER_QUESTION = 4;
+    private static final int LISTING_PAGE_SIZE = 100;
+
+    private final LoadTestConfig config;
+    private final ApiClient client;
+
+    private LoadTest(LoadTestConfig config, ApiClient client) {
+        this.config = config;
+        this.client = client;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        Map<String, List<ScenarioResult>> results = new LinkedHashMap<>();
+        if (config.baseUrl != null) {
+            results.put("external", runAgainst(config, config.baseUrl));
+        } else {
+            // compare request thread modes, each against a freshly started application
+            for (String threads : config.threads) {
+                ConfigurableApplicationContext context = startApplication(threads);
+                try {
+                    String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                    results.put(threads, runAgainst(config, baseUrl));
+                } finally {
+                    context.close();
+                }
+            }
+        }
+
+        printReport(results);
+        writeReport(results, Paths.get(config.report));
+    }
+
+    private static List<ScenarioResult> runAgainst(LoadTestConfig config, String baseUrl) throws Exception {
+        System.out.println("Load test of " + baseUrl + " with " + config);
+
+        return new LoadTest(config, new ApiClient(baseUrl)).run();
+    }
+
+    private List<ScenarioResult> run() throws Exception {
+        List<ScenarioResult> results = new ArrayList<>();
+
+        // unique run id, so the same database can be used for several runs
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        String[] emails = new String[config.users];
+        String[] tokens = new String[config.users];
+        for (int i = 0; i < config.users; i++) {
+            emails[i] = "student-" + i + "-" + run + "@loadtest.com";
+        }
+
+        // educator prepares the exam
+        String educatorEmail = "educator-" + run + "@loadtest.com";
+        client.signUp(educatorEmail, PASSWORD, "EDUCATOR");
+        String educatorToken = client.signIn(educatorEmail, PASSWORD);
+
+        String subjectId = client.createSubject(educatorToken, "Load test " + run);
+        JsonNode test = client.createTest(educatorToken, subjectId, config.questions, OPTIONS_PER_QUESTION);
+        String testId = test.get("id").asText();
+
+        try (ScenarioRunner runner = new ScenarioRunner(config.concurrency)) {
+            results.add(runner.run("sign up", config.users,
+                    i -> client.signUp(emails[i], PASSWORD, "STUDENT")));
+
+            results.add(runner.run("sign in storm", config.users,
+                    i -> tokens[i] = client.signIn(emails[i], PASSWORD)));
+
+            results.add(runner.run("exam fetch", config.users * config.fetchesPerUser,
+                    i -> client.getExam(tokens[i % config.users], testId)));
+
+            results.add(runner.run("attempt submission", config.users,
+                    i -> client.submitAttempt(tokens[i], testId, buildAttempt(test))));
+
+            int pages = Math.max(1, (config.users + LISTING_PAGE_SIZE - 1) / LISTING_PAGE_SIZE);
+            results.add(runner.run("educator attempt listing", config.listingRequests,
+                    i -> client.getAttemptsByTestId(educatorToken, testId, i % pages, LISTING_PAGE_SIZE)));
+        }
+
+        return results;
+    }
+
+    // answers every question with a random option, so scores are spread
+    private ObjectNode buildAttempt(JsonNode test) {
+        ObjectNode attempt = client.object();
+        ArrayNode questions = attempt.putArray("questions");
+
+        for (JsonNode question : test.get("questions")) {
+            JsonNode options = question.get("options");
+            JsonNode option = options.get(ThreadLocalRandom.current().nextInt(options.size()));
+
+            ObjectNode attemptQuestion = questions.addObject().put("questionId", question.get("id").asLong());
+            attemptQuestion.putArray("answers").addObject().put("optionId", option.get("id").asLong());
+        }
+
+        return attempt;
+    }
+
+    private static ConfigurableApplicationContext startApplication(String threads) {
+        SpringApplication application = new SpringApplication(TestingApplication.class);
+        application.setAdditionalProfiles("loadtest");
+
+        boolean virtualThreads = LoadTestConfig.VIRTUAL_THREADS.equals(threads);
+        return application.run(
+                "--server.port=0", "--management.server.port=0", "--requests.virtual-threads.enabled=" + virtualThreads
+        );
+    }
+
+    private static void printReport(Map<String, List<ScenarioResult>> results) {
+        System.out.printf("%n%-9s %-26s %9s %7s %10s %9s %9s %9s %9s%n",
+                "threads", "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+
+        results.forEach((threads, scenarios) -> {
+            for (ScenarioResult result : scenarios) {
+                System.out.printf("%-9s %-26s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        threads, result.name, result.requests, result.errors, result.throughput,
+                        result.p50Ms, result.p90Ms, result.p99Ms, result.maxMs);
+            }
+        });
+    }
+
+    private static void writeReport(Map<String, List<ScenarioResult>> results, Path report) throws Exception {
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        results.forEach((threads, scenarioResults) -> {
+            for (ScenarioResult result : scenarioResults) {
+                Map<String, Object> scenario = new LinkedHashMap<>();
+                scenario.put("threads", threads);
+                scenario.putAll(result.toMap());
+
+                scenarios.add(scenario);
+            }
+        });
+
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(report.toFile(), scenarios);
+
+        System.out.println("\nReport written to " + report.toAbsolutePath());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.testing.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load test settings, read from the loadtest.* system properties
+ */
+final class LoadTestConfig {
+    static final String PLATFORM_THREADS = "platform";
+    static final String VIRTUAL_THREADS = "virtual";
+
+    // url of the running application, the application is started in-process when missing
+    final String baseUrl;
+
+    final int users;
+    final int concurrency;
+    final int questions;
+    final int fetchesPerUser;
+    final int listingRequests;
+
+    // request thread modes of the in-process application, each mode is tested against a fresh start
+    final List<String> threads;
+
+    final String report;
+
+    private LoadTestConfig(
+            String baseUrl, int users, int concurrency, int questions, int fetchesPerUser, int listingRequests,
+            List<String> threads, String report
+    ) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.concurrency = concurrency;
+        this.questions = questions;
+        this.fetchesPerUser = fetchesPerUser;
+        this.listingRequests = listingRequests;
+        this.threads = threads;
+        this.report = report;
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                System.getProperty("loadtest.baseUrl"),
+                Integer.getInteger("loadtest.users", 200),
+                Integer.getInteger("loadtest.concurrency", 50),
+                Integer.getInteger("loadtest.questions", 20),
+                Integer.getInteger("loadtest.fetchesPerUser", 5),
+                Integer.getInteger("loadtest.listingRequests", 200),
+                parseThreads(System.getProperty("loadtest.threads", PLATFORM_THREADS)),
+                System.getProperty("loadtest.report", "build/reports/loadtest/results.json")
+        );
+    }
+
+    private static List<String> parseThreads(String value) {
+        List<String> threads = new ArrayList<>();
+        for (String mode : value.split(",")) {
+            mode = mode.trim();
+            if (!mode.equals(PLATFORM_THREADS) && !mode.equals(VIRTUAL_THREADS)) {
+                throw new IllegalArgumentException("Unknown loadtest.threads mode: " + mode);
+            }
+
+            threads.add(mode);
+        }
+
+        return threads;
+    }
+
+    @Override
+    public String toString() {
+        return "users=" + users + ", concurrency=" + concurrency + ", questions=" + questions
+                + ", fetchesPerUser=" + fetchesPerUser + ", listingRequests=" + listingRequests + ", threads=" + threads;
+    }
+}
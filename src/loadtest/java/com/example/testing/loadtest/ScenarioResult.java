@@ -0,0 +1,70 @@
+package com.example.testing.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Latency percentiles and throughput of one scenario
+ */
+final class ScenarioResult {
+    final String name;
+    final int requests;
+    final int errors;
+    final double durationSec;
+    final double throughput;
+
+    final double p50Ms;
+    final double p90Ms;
+    final double p99Ms;
+    final double maxMs;
+
+    private ScenarioResult(String name, int requests, int errors, double durationSec, long[] sortedLatenciesNs) {
+        this.name = name;
+        this.requests = requests;
+        this.errors = errors;
+        this.durationSec = durationSec;
+        this.throughput = durationSec > 0 ? requests / durationSec : 0;
+
+        this.p50Ms = percentileMs(sortedLatenciesNs, 0.50);
+        this.p90Ms = percentileMs(sortedLatenciesNs, 0.90);
+        this.p99Ms = percentileMs(sortedLatenciesNs, 0.99);
+        this.maxMs = sortedLatenciesNs.length == 0 ? 0 : toMs(sortedLatenciesNs[sortedLatenciesNs.length - 1]);
+    }
+
+    static ScenarioResult of(String name, long[] latenciesNs, int errors, long durationNs) {
+        long[] sorted = latenciesNs.clone();
+        Arrays.sort(sorted);
+
+        return new ScenarioResult(name, latenciesNs.length, errors, durationNs / 1e9, sorted);
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("scenario", name);
+        map.put("requests", requests);
+        map.put("errors", errors);
+        map.put("durationSec", durationSec);
+        map.put("throughputPerSec", throughput);
+        map.put("p50Ms", p50Ms);
+        map.put("p90Ms", p90Ms);
+        map.put("p99Ms", p99Ms);
+        map.put("maxMs", maxMs);
+
+        return map;
+    }
+
+    // nearest rank percentile
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return toMs(sorted[Math.max(0, rank - 1)]);
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.testing.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a number of requests on a fixed number of workers and measures the latency of every request
+ */
+final class ScenarioRunner implements AutoCloseable {
+    private final ExecutorService workers;
+
+    ScenarioRunner(int concurrency) {
+        this.workers = Executors.newFixedThreadPool(concurrency);
+    }
+
+    interface Request {
+        void execute(int index) throws Exception;
+    }
+
+    ScenarioResult run(String name, int requests, Request request) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger firstErrorLogged = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            futures.add(workers.submit(() -> {
+                long requestStart = System.nanoTime();
+                try {
+                    request.execute(index);
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                    if (firstErrorLogged.getAndIncrement() == 0) {
+                        System.err.println(name + ": " + e.getMessage());
+                    }
+                }
+                latencies[index] = System.nanoTime() - requestStart;
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load test worker failed", e.getCause());
+            }
+        }
+
+        return ScenarioResult.of(name, latencies, errors.get(), System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
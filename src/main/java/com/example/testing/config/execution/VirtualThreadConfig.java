@@ -0,0 +1,68 @@
+package com.example.testing.config.execution;
+
+import com.example.testing.filters.ConcurrencyLimitFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Serves requests on virtual threads instead of the fixed Tomcat thread pool.
+ * Virtual threads don't bound the number of requests in progress, so it is limited to the size of the connection pool
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "requests.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig implements DisposableBean {
+    private final ExecutorService executor = VirtualThreadExecutor.create("http-vt-");
+
+    @Bean
+    TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean
+    ConcurrencyLimitFilter concurrencyLimitFilter(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${requests.concurrency-limit.max-concurrent:0}") int maxConcurrent,
+            @Value("${requests.concurrency-limit.wait-timeout-ms:5000}") long waitTimeoutMs
+    ) throws JsonProcessingException {
+        if (maxConcurrent <= 0) {
+            maxConcurrent = getConnectionPoolSize(dataSource);
+        }
+
+        log.info("Serving at most {} requests at once", maxConcurrent);
+        return new ConcurrencyLimitFilter(maxConcurrent, waitTimeoutMs, objectMapper);
+    }
+
+    @Override
+    public void destroy() {
+        // web server is already stopped at this point
+        executor.shutdown();
+    }
+
+    private static int getConnectionPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.error("Failed to get connection pool of the data source", e);
+        }
+
+        throw new IllegalStateException("Unknown connection pool size, set requests.concurrency-limit.max-concurrent");
+    }
+}
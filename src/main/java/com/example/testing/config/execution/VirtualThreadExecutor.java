@@ -0,0 +1,39 @@
+package com.example.testing.config.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors that start a new virtual thread for every task.
+ * The application is compiled for Java 11, so the Java 21 api is called reflectively
+ */
+public final class VirtualThreadExecutor {
+
+    private VirtualThreadExecutor() {
+    }
+
+    /**
+     * Create executor that runs every task on a new virtual thread
+     *
+     * @param namePrefix prefix of the thread names, followed by the thread number
+     * @return virtual thread per task executor
+     * @throws IllegalStateException if the runtime doesn't support virtual threads
+     */
+    public static ExecutorService create(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder$OfVirtual");
+
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads require Java 21, running on Java " + Runtime.version());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.testing.config.persistence;
+
+import com.example.testing.model.Subject;
+import com.example.testing.model.User;
+import com.example.testing.model.test.Option;
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second level cache of the entities that are read on almost every request and rarely change.
+ * Regions are in-process Caffeine caches bounded by the number of entries.
+ * Entity writes go through the entity manager, so read-write regions are updated on commit without explicit eviction.
+ * Native inserts of the stats stripes declare their tables as query spaces, otherwise hibernate would evict every region
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "cache.entities.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(
+            @Value("${cache.entities.users:10000}") long users,
+            @Value("${cache.entities.subjects:10000}") long subjects,
+            @Value("${cache.entities.tests:10000}") long tests,
+            @Value("${cache.entities.questions:100000}") long questions,
+            @Value("${cache.entities.options:400000}") long options
+    ) {
+        // collection regions hold ids of the elements, one entry per owner
+        Map<String, Long> regions = new LinkedHashMap<>();
+        regions.put(User.class.getName(), users);
+        regions.put(Subject.class.getName(), subjects);
+        regions.put(Test.class.getName(), tests);
+        regions.put(Test.class.getName() + ".questions", tests);
+        regions.put(Question.class.getName(), questions);
+        regions.put(Question.class.getName() + ".options", questions);
+        regions.put(Option.class.getName(), options);
+
+        // own cache manager, so regions of application contexts started in the same jvm, e.g. by tests, don't clash
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("second-level-cache:" + UUID.randomUUID()), provider.getDefaultClassLoader()
+        );
+
+        regions.forEach((region, maximumSize) -> {
+            log.debug("Create second level cache region {} of {} entries", region, maximumSize);
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setStatisticsEnabled(true);
+
+            cacheManager.createCache(region, configuration);
+        });
+
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            // regions that aren't created above are mapping mistakes, not something to create unbounded
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
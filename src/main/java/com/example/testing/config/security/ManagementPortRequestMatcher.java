@@ -0,0 +1,31 @@
+package com.example.testing.config.security;
+
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Matches requests received on the management port.
+ * Port is taken from the started management server, so it works with a random port (management.server.port=0) too
+ */
+public class ManagementPortRequestMatcher implements RequestMatcher, ApplicationListener<WebServerInitializedEvent> {
+    static final String MANAGEMENT_NAMESPACE = "management";
+
+    // no request is matched until the management server is started
+    private volatile int port = -1;
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return request.getLocalPort() == port;
+    }
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        // events of the child management context are published to the main context too
+        if (MANAGEMENT_NAMESPACE.equals(event.getApplicationContext().getServerNamespace())) {
+            port = event.getWebServer().getPort();
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.example.testing.config.security;
 
 import com.example.testing.filters.JwtVerificationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.web.server.ConditionalOnManagementPort;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -27,6 +30,7 @@ public class WebSecurityConfig {
 
         http.authorizeRequests()
                 .antMatchers("/api/auth/**").permitAll()
+                .antMatchers("/actuator/health").permitAll()
                 .antMatchers(HttpMethod.POST, "/api/subjects/**/tests/**/attempts").authenticated()
                 .antMatchers(HttpMethod.POST, "/api/subjects", "/api/tests").hasRole("EDUCATOR")
                 .antMatchers(HttpMethod.PUT, "/api/subjects", "/api/tests").hasRole("EDUCATOR")
@@ -39,13 +43,40 @@ public class WebSecurityConfig {
         return http.build();
     }
 
+    /**
+     * Actuator endpoints on the management port, which is not published with the public api
+     */
+    @Bean
+    @Order(1)
+    @ConditionalOnManagementPort(ManagementPortType.DIFFERENT)
+    public SecurityFilterChain configureManagement(
+            HttpSecurity http, ManagementPortRequestMatcher managementPortRequestMatcher
+    ) throws Exception {
+        http.requestMatcher(managementPortRequestMatcher)
+                .csrf().disable();
+
+        http.authorizeRequests()
+                .antMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .anyRequest().denyAll();
+
+        http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+
+        return http.build();
+    }
+
+    @Bean
+    @ConditionalOnManagementPort(ManagementPortType.DIFFERENT)
+    public ManagementPortRequestMatcher managementPortRequestMatcher() {
+        return new ManagementPortRequestMatcher();
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of("*"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("authorization", "content-type", "x-auth-token"));
-        configuration.setExposedHeaders(List.of("x-auth-token"));
+        configuration.setExposedHeaders(List.of("x-auth-token", "x-trace-id"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
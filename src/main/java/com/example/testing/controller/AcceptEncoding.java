@@ -0,0 +1,114 @@
+package com.example.testing.controller;
+
+/**
+ * Parser of the Accept-Encoding header. Header is read on every exam fetch,
+ * so it is scanned in a single pass without splitting or regular expressions
+ */
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * Check if the client accepts gzip coding. An explicit gzip entry takes precedence over the wildcard
+     * and a zero quality value means the coding is refused
+     *
+     * @param acceptEncoding value of the Accept-Encoding header, may be null
+     * @return true if gzip coding is accepted
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Boolean gzip = null;
+        boolean wildcard = false;
+
+        int length = acceptEncoding.length();
+        int start = 0;
+        while (start < length) {
+            int end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            int params = acceptEncoding.indexOf(';', start);
+            if (params < 0 || params > end) {
+                params = end;
+            }
+
+            if (isToken(acceptEncoding, start, params, "gzip")) {
+                gzip = !isRefused(acceptEncoding, params, end);
+            } else if (isToken(acceptEncoding, start, params, "*")) {
+                wildcard = !isRefused(acceptEncoding, params, end);
+            }
+
+            start = end + 1;
+        }
+
+        return gzip != null ? gzip : wildcard;
+    }
+
+    private static boolean isToken(String header, int from, int to, String token) {
+        from = skipWhitespace(header, from, to);
+        while (to > from && Character.isWhitespace(header.charAt(to - 1))) {
+            to--;
+        }
+
+        return to - from == token.length() && header.regionMatches(true, from, token, 0, token.length());
+    }
+
+    private static boolean isRefused(String header, int from, int to) {
+        // parameters start with ';', the quality one is q=<value>
+        while (from < to) {
+            int next = header.indexOf(';', from + 1);
+            if (next < 0 || next > to) {
+                next = to;
+            }
+
+            int i = skipWhitespace(header, from + 1, next);
+            if (i < next && Character.toLowerCase(header.charAt(i)) == 'q') {
+                i = skipWhitespace(header, i + 1, next);
+                if (i < next && header.charAt(i) == '=') {
+                    return isZero(header, skipWhitespace(header, i + 1, next), next);
+                }
+            }
+
+            from = next;
+        }
+
+        return false;
+    }
+
+    private static boolean isZero(String header, int from, int to) {
+        while (to > from && Character.isWhitespace(header.charAt(to - 1))) {
+            to--;
+        }
+
+        // 0, 0., 0.0, 0.00 or 0.000
+        if (from == to || header.charAt(from) != '0') {
+            return false;
+        }
+        if (from + 1 == to) {
+            return true;
+        }
+        if (header.charAt(from + 1) != '.' || to - from > 5) {
+            return false;
+        }
+        for (int i = from + 2; i < to; i++) {
+            if (header.charAt(i) != '0') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int skipWhitespace(String header, int from, int to) {
+        while (from < to && Character.isWhitespace(header.charAt(from))) {
+            from++;
+        }
+
+        return from;
+    }
+}
@@ -1,14 +1,17 @@
 package com.example.testing.controller;
 
 import com.example.testing.model.User;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.attempt.AttemptResultDto;
+import com.example.testing.payload.attempt.AttemptSummaryDto;
 import com.example.testing.service.AttemptService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import javax.validation.Valid;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -17,17 +20,26 @@ import java.util.List;
 public class AttemptController {
     private final AttemptService attemptService;
 
+    @GetMapping("summary")
+    PageDto<AttemptSummaryDto> getAttemptSummaries(@Valid PageRequestDto pageRequest, @AuthenticationPrincipal User user) {
+        return attemptService.getAttemptSummariesByUser(user, pageRequest);
+    }
+
     @GetMapping("{attemptId}")
     AttemptResultDto getAttemptById(@PathVariable String attemptId, @AuthenticationPrincipal User user) {
         return attemptService.getAttemptById(attemptId, user);
     }
 
     @GetMapping
-    List<AttemptResultDto> getAttemptsByTestId(@RequestParam(required = false) String testId, @AuthenticationPrincipal User user) {
+    PageDto<AttemptResultDto> getAttemptsByTestId(
+            @RequestParam(required = false) String testId,
+            @Valid PageRequestDto pageRequest,
+            @AuthenticationPrincipal User user
+    ) {
         if(testId != null) {
-            return attemptService.getAttemptsByTestId(testId, user);
+            return attemptService.getAttemptsByTestId(testId, user, pageRequest);
         }
 
-        return attemptService.getAttemptsByUser(user);
+        return attemptService.getAttemptsByUser(user, pageRequest);
     }
 }
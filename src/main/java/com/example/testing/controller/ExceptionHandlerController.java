@@ -2,7 +2,11 @@ package com.example.testing.controller;
 
 import com.example.testing.exceptions.ResourceAlreadyExistException;
 import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.exceptions.ServiceUnavailableException;
 import com.example.testing.payload.ApiErrorDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -17,15 +21,19 @@ import java.util.Optional;
 import static org.springframework.http.HttpStatus.*;
 
 @Slf4j
+@RequiredArgsConstructor
 @RestControllerAdvice
 public class ExceptionHandlerController {
+    private static final String ERRORS_COUNTER = "api.errors";
+
+    private final MeterRegistry meterRegistry;
 
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ApiErrorDto> handleAuthenticationException(BadCredentialsException e) {
         log.error("Handle bad credentials exception: {}", e.getMessage(), e);
 
         String error = "Invalid username or password";
-        return buildResponseEntity(new ApiErrorDto(UNAUTHORIZED, error, e));
+        return buildResponseEntity(new ApiErrorDto(UNAUTHORIZED, error, e), e);
     }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
@@ -33,21 +41,28 @@ public class ExceptionHandlerController {
         log.error("Handle message not readable exception: {}", e.getMessage(), e);
 
         String error = "Malformed JSON request";
-        return buildResponseEntity(new ApiErrorDto(BAD_REQUEST, error, e));
+        return buildResponseEntity(new ApiErrorDto(BAD_REQUEST, error, e), e);
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
     protected ResponseEntity<ApiErrorDto> handleResourceNotFound(ResourceNotFoundException e) {
         log.error("Handle message not readable exception: {}", e.getMessage(), e);
 
-        return buildResponseEntity(new ApiErrorDto(NOT_FOUND, e.getMessage(), e));
+        return buildResponseEntity(new ApiErrorDto(NOT_FOUND, e.getMessage(), e), e);
     }
 
     @ExceptionHandler(ResourceAlreadyExistException.class)
     protected ResponseEntity<ApiErrorDto> handleResourceAlreadyExistsException(ResourceAlreadyExistException e) {
         log.error("Handle resource already exist exception: {}", e.getMessage(), e);
 
-        return buildResponseEntity(new ApiErrorDto(CONFLICT, e.getMessage(), e));
+        return buildResponseEntity(new ApiErrorDto(CONFLICT, e.getMessage(), e), e);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    protected ResponseEntity<ApiErrorDto> handleServiceUnavailableException(ServiceUnavailableException e) {
+        log.error("Handle service unavailable exception: {}", e.getMessage());
+
+        return buildResponseEntity(new ApiErrorDto(SERVICE_UNAVAILABLE, e.getMessage(), e), e);
     }
 
     @ExceptionHandler(BindException.class)
@@ -58,17 +73,24 @@ public class ExceptionHandlerController {
         String message = fieldError.isEmpty() ? "Invalid input" : fieldError.get().getDefaultMessage();
 
         ApiErrorDto apiError = new ApiErrorDto(BAD_REQUEST, message);
-        return buildResponseEntity(apiError);
+        return buildResponseEntity(apiError, e);
     }
 
     @ExceptionHandler(IllegalStateException.class)
     protected ResponseEntity<ApiErrorDto> handleIllegalStateException(IllegalStateException e) {
         log.error("handle illegal state exception: {}", e.getMessage(), e);
 
-        return buildResponseEntity(new ApiErrorDto(BAD_REQUEST, e.getMessage(), e));
+        return buildResponseEntity(new ApiErrorDto(BAD_REQUEST, e.getMessage(), e), e);
     }
 
-    private ResponseEntity<ApiErrorDto> buildResponseEntity(ApiErrorDto apiError) {
+    private ResponseEntity<ApiErrorDto> buildResponseEntity(ApiErrorDto apiError, Exception e) {
+        Counter.builder(ERRORS_COUNTER)
+                .description("Requests that failed with handled exception")
+                .tag("exception", e.getClass().getSimpleName())
+                .tag("status", String.valueOf(apiError.getStatus().value()))
+                .register(meterRegistry)
+                .increment();
+
         return new ResponseEntity<>(apiError, apiError.getStatus());
     }
 }
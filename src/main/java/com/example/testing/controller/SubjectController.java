@@ -1,6 +1,8 @@
 package com.example.testing.controller;
 
 import com.example.testing.model.User;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.SubjectDto;
 import com.example.testing.service.SubjectService;
 import lombok.RequiredArgsConstructor;
@@ -9,7 +11,6 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
-import java.util.List;
 
 @RequiredArgsConstructor
 @RestController
@@ -48,11 +49,14 @@ public class SubjectController {
     }
 
     @GetMapping
-    List<SubjectDto> getSubjectsByEducatorId(@RequestParam(required = false) String educatorId) {
+    PageDto<SubjectDto> getSubjectsByEducatorId(
+            @RequestParam(required = false) String educatorId,
+            @Valid PageRequestDto pageRequest
+    ) {
         if (educatorId != null) {
-            return subjectService.getSubjectsByEducatorId(educatorId);
+            return subjectService.getSubjectsByEducatorId(educatorId, pageRequest);
         }
 
-        return subjectService.getAllSubjects();
+        return subjectService.getAllSubjects(pageRequest);
     }
 }
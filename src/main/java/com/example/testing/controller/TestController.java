@@ -1,18 +1,32 @@
 package com.example.testing.controller;
 
 import com.example.testing.model.User;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.attempt.AttemptDto;
 import com.example.testing.payload.attempt.AttemptResultDto;
+import com.example.testing.payload.attempt.BulkAttemptRequestDto;
+import com.example.testing.payload.attempt.BulkAttemptResponseDto;
+import com.example.testing.payload.stats.TestStatsDto;
 import com.example.testing.payload.test.TestDto;
+import com.example.testing.service.AttemptExportService;
 import com.example.testing.service.AttemptService;
 import com.example.testing.service.TestService;
+import com.example.testing.service.TestStatsService;
+import com.example.testing.service.cache.RenderedExam;
+import com.example.testing.service.export.ExportFormat;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
-import java.util.List;
 
 @RequiredArgsConstructor
 @RestController
@@ -21,6 +35,8 @@ public class TestController {
 
     private final TestService testService;
     private final AttemptService attemptService;
+    private final AttemptExportService attemptExportService;
+    private final TestStatsService testStatsService;
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping
@@ -48,13 +64,50 @@ public class TestController {
     }
 
     @GetMapping("{testId}")
-    TestDto getTests(@PathVariable String testId) {
-        return testService.getTestById(testId);
+    TestDto getTests(@PathVariable String testId, @AuthenticationPrincipal User user) {
+        return testService.getTestById(testId, user);
+    }
+
+    @GetMapping("{testId}/exam")
+    ResponseEntity<byte[]> getExam(
+            @PathVariable String testId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        RenderedExam exam = testService.getExam(testId);
+        boolean gzip = exam.hasGzipBody() && AcceptEncoding.acceptsGzip(acceptEncoding);
+
+        boolean notModified = exam.matches(ifNoneMatch);
+
+        // exams are private to authenticated users and must be revalidated, so edits are seen right away
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(gzip ? exam.getGzipEtag() : exam.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        if (notModified) {
+            return response.build();
+        }
+
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(gzip ? exam.getGzipBody() : exam.getBody());
+    }
+
+    @GetMapping("{testId}/stats")
+    TestStatsDto getTestStats(@PathVariable String testId, @AuthenticationPrincipal User user) {
+        return testStatsService.getTestStats(testId, user);
     }
 
     @GetMapping(params = "subjectId")
-    List<TestDto> getTestBySubjectId(@RequestParam String subjectId) {
-        return testService.getTestsBySubjectId(subjectId);
+    PageDto<TestDto> getTestBySubjectId(
+            @RequestParam String subjectId, @Valid PageRequestDto pageRequest, @AuthenticationPrincipal User user
+    ) {
+        return testService.getTestsBySubjectId(subjectId, user, pageRequest);
     }
 
     @PostMapping("{testId}/attempts")
@@ -65,4 +118,28 @@ public class TestController {
     ) {
         return attemptService.processAttempt(testId, attemptDto, user);
     }
+
+    @PostMapping("attempts/bulk")
+    BulkAttemptResponseDto takeTests(
+            @RequestBody @Valid BulkAttemptRequestDto req,
+            @AuthenticationPrincipal User user
+    ) {
+        return attemptService.processAttempts(req.getAttempts(), user);
+    }
+
+    @GetMapping("{testId}/attempts/export")
+    ResponseEntity<StreamingResponseBody> exportAttempts(
+            @PathVariable String testId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @AuthenticationPrincipal User user
+    ) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        StreamingResponseBody body = attemptExportService.exportAttemptsByTestId(testId, exportFormat, user);
+
+        String filename = "attempts-" + testId + "." + exportFormat.getFileExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
 }
@@ -0,0 +1,234 @@
+package com.example.testing.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reports repository query methods whose leading filtered column is not the leading column of any index of the table.
+ * Leading filtered column is the first one compared by equality, as range predicates like keyset ones can't seek
+ * by the index on their own.
+ * Runs once the application is ready and only logs, so it never affects startup
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "diagnostics.index-advisor.enabled", havingValue = "true", matchIfMissing = true)
+public class IndexAdvisor {
+    private static final Pattern ROOT_ENTITY = Pattern.compile(
+            "\\b(?:from|update)\\s+(\\w+)\\s+(?:as\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE
+    );
+    private static final Pattern WHERE = Pattern.compile("\\bwhere\\b(.*)", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final String PREDICATE = "\\b%s\\.(\\w+)\\s*(=|<>|!=|<=|>=|<|>|\\bin\\b|\\blike\\b|\\bbetween\\b|\\bis\\b)";
+
+    private final ApplicationContext applicationContext;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void advise() {
+        try (Connection connection = dataSource.getConnection()) {
+            List<String> warnings = findUncoveredQueries(connection.getMetaData());
+
+            warnings.forEach(log::warn);
+            log.info("Index advisor found {} repository query methods without a matching index", warnings.size());
+        } catch (Exception e) {
+            log.error("Index advisor failed", e);
+        }
+    }
+
+    private List<String> findUncoveredQueries(DatabaseMetaData metaData) throws SQLException {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Repositories repositories = new Repositories(applicationContext);
+        Map<String, List<List<String>>> indexesByTable = new HashMap<>();
+
+        List<String> warnings = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            EntityPersister persister = sessionFactory.getMetamodel().entityPersister(domainType);
+            if (!(persister instanceof AbstractEntityPersister)) {
+                continue;
+            }
+
+            AbstractEntityPersister entityPersister = (AbstractEntityPersister) persister;
+            String table = entityPersister.getTableName();
+            List<List<String>> indexes = indexesByTable.computeIfAbsent(table, name -> readIndexes(metaData, name));
+
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            for (Method method : information.getQueryMethods()) {
+                List<String> properties = predicateProperties(method, domainType, false);
+                if (properties.isEmpty()) {
+                    continue;
+                }
+
+                // without an equality predicate the first filtered column is the only one an index can start with
+                List<String> equalityProperties = predicateProperties(method, domainType, true);
+                String leading = equalityProperties.isEmpty() ? properties.get(0) : equalityProperties.get(0);
+
+                List<String> columns = toColumns(entityPersister, properties);
+                List<String> leadingColumns = toColumns(entityPersister, List.of(leading));
+                if (columns.isEmpty() || leadingColumns.isEmpty()) {
+                    log.debug("Can't resolve columns of the query method {}.{}", domainType.getSimpleName(), method.getName());
+                    continue;
+                }
+
+                if (!isCovered(leadingColumns.get(0), indexes)) {
+                    warnings.add(String.format(
+                            "Query method %s.%s filters %s by %s, but no index of the table starts with %s",
+                            information.getRepositoryInterface().getSimpleName(), method.getName(), table, columns,
+                            leadingColumns.get(0)
+                    ));
+                }
+            }
+        }
+
+        return warnings;
+    }
+
+    private static List<String> predicateProperties(Method method, Class<?> domainType, boolean equalityOnly) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        if (query != null) {
+            return query.nativeQuery() ? List.of() : jpqlPredicateProperties(query.value(), equalityOnly);
+        }
+
+        try {
+            Set<String> properties = new LinkedHashSet<>();
+            for (Part part : new PartTree(method.getName(), domainType).getParts()) {
+                if (!equalityOnly || part.getType() == Part.Type.SIMPLE_PROPERTY) {
+                    properties.add(part.getProperty().getSegment());
+                }
+            }
+            return new ArrayList<>(properties);
+        } catch (RuntimeException e) {
+            log.debug("Can't parse query method {}: {}", method.getName(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Get properties of the root entity used in the where clause of the jpql query, in order of appearance
+     *
+     * @param jpql jpql query
+     * @return filtered properties of the root entity
+     */
+    static List<String> jpqlPredicateProperties(String jpql) {
+        return jpqlPredicateProperties(jpql, false);
+    }
+
+    /**
+     * Get properties of the root entity compared by equality in the where clause of the jpql query, in order of appearance
+     *
+     * @param jpql jpql query
+     * @return properties of the root entity filtered by equality
+     */
+    static List<String> jpqlEqualityProperties(String jpql) {
+        return jpqlPredicateProperties(jpql, true);
+    }
+
+    private static List<String> jpqlPredicateProperties(String jpql, boolean equalityOnly) {
+        Matcher root = ROOT_ENTITY.matcher(jpql);
+        Matcher where = WHERE.matcher(jpql);
+        if (!root.find() || !where.find()) {
+            return List.of();
+        }
+
+        Pattern predicate = Pattern.compile(String.format(PREDICATE, Pattern.quote(root.group(2))), Pattern.CASE_INSENSITIVE);
+        Matcher matcher = predicate.matcher(where.group(1));
+
+        Set<String> properties = new LinkedHashSet<>();
+        while (matcher.find()) {
+            if (!equalityOnly || matcher.group(2).equals("=")) {
+                properties.add(matcher.group(1));
+            }
+        }
+
+        return new ArrayList<>(properties);
+    }
+
+    /**
+     * Check if any index starts with the leading filtered column
+     *
+     * @param column  leading filtered column
+     * @param indexes columns of every index of the table, in index order
+     * @return true if query can use an index
+     */
+    static boolean isCovered(String column, List<List<String>> indexes) {
+        for (List<String> index : indexes) {
+            if (!index.isEmpty() && column.equalsIgnoreCase(index.get(0))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static List<String> toColumns(AbstractEntityPersister persister, List<String> properties) {
+        List<String> columns = new ArrayList<>();
+        try {
+            for (String property : properties) {
+                String[] propertyColumns = property.equals(persister.getIdentifierPropertyName())
+                        ? persister.getIdentifierColumnNames()
+                        : persister.getPropertyColumnNames(property);
+
+                columns.addAll(Arrays.asList(propertyColumns));
+            }
+        } catch (RuntimeException e) {
+            // property isn't mapped to columns of the table, e.g. collection or part of composite id
+            return List.of();
+        }
+
+        return columns;
+    }
+
+    private static List<List<String>> readIndexes(DatabaseMetaData metaData, String table) {
+        try {
+            String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT)
+                    : metaData.storesLowerCaseIdentifiers() ? table.toLowerCase(Locale.ROOT) : table;
+
+            Map<String, SortedMap<Short, String>> columnsByIndex = new HashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(null, null, name, false, true)) {
+                while (rs.next()) {
+                    String index = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (index == null || column == null) {
+                        continue;
+                    }
+
+                    columnsByIndex.computeIfAbsent(index, key -> new TreeMap<>()).put(rs.getShort("ORDINAL_POSITION"), column);
+                }
+            }
+
+            List<List<String>> indexes = new ArrayList<>();
+            for (SortedMap<Short, String> columns : columnsByIndex.values()) {
+                indexes.add(new ArrayList<>(columns.values()));
+            }
+            return indexes;
+        } catch (SQLException e) {
+            log.error("Can't read indexes of the table {}", table, e);
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.testing.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.testing.filters;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits the number of requests served at once, so requests on virtual threads wait for a permit in order
+ * instead of piling up on the connection pool. Requests that don't get a permit in time are rejected with 503.
+ * Asynchronous requests, such as streamed exports, hold the permit until their async processing completes
+ */
+@Slf4j
+// after tracing, so rejected requests are traced too, and before security, which may query the database
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+    private static final String UNLIMITED_PATH = "/actuator/";
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long waitTimeoutMs;
+
+    private final FilterErrorResponse unavailable;
+
+    private Counter rejected;
+
+    public ConcurrencyLimitFilter(int maxConcurrent, long waitTimeoutMs, ObjectMapper objectMapper) throws JsonProcessingException {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.unavailable = FilterErrorResponse.of(
+                objectMapper, HttpStatus.SERVICE_UNAVAILABLE, "Too many requests, try again later"
+        );
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        // health checks and metrics must answer while the application is saturated
+        return req.getRequestURI().startsWith(UNLIMITED_PATH, req.getContextPath().length());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain filterChain) throws ServletException, IOException {
+        if (!acquire()) {
+            log.error("No permit for {} {} in {} ms, rejecting request", req.getMethod(), req.getRequestURI(), waitTimeoutMs);
+            if (rejected != null) {
+                rejected.increment();
+            }
+
+            unavailable.write(res);
+            return;
+        }
+
+        Permit permit = new Permit();
+        try {
+            filterChain.doFilter(req, res);
+        } finally {
+            // async processing completes after this thread returns, possibly holding a connection until then
+            if (req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    public int getActiveCount() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getQueuedCount() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("http.server.requests.concurrency.active", this, ConcurrencyLimitFilter::getActiveCount)
+                .description("Requests holding a concurrency permit")
+                .register(registry);
+        Gauge.builder("http.server.requests.concurrency.queued", this, ConcurrencyLimitFilter::getQueuedCount)
+                .description("Requests waiting for a concurrency permit")
+                .register(registry);
+
+        rejected = Counter.builder("http.server.requests.concurrency.rejected")
+                .description("Requests rejected because no concurrency permit was available in time")
+                .register(registry);
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Permit of a single request, released once when the request or its async processing ends
+     */
+    private final class Permit implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // listeners are removed when async processing is restarted
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
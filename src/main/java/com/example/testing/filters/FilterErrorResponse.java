@@ -0,0 +1,37 @@
+package com.example.testing.filters;
+
+import com.example.testing.payload.ApiErrorDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Error response written by a filter that rejects the request before it reaches the controllers.
+ * Rejection body never changes, so it is serialized once
+ */
+final class FilterErrorResponse {
+    private final HttpStatus status;
+    private final byte[] body;
+
+    private FilterErrorResponse(HttpStatus status, byte[] body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    static FilterErrorResponse of(ObjectMapper objectMapper, HttpStatus status, String message) throws JsonProcessingException {
+        return new FilterErrorResponse(status, objectMapper.writeValueAsBytes(new ApiErrorDto(status, message)));
+    }
+
+    void write(HttpServletResponse response) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+}
@@ -1,13 +1,13 @@
 package com.example.testing.filters;
 
-import com.example.testing.payload.ApiErrorDto;
 import com.example.testing.service.AuthService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -18,51 +18,76 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
-@RequiredArgsConstructor
 @Component
 public class JwtVerificationFilter extends OncePerRequestFilter {
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String PUBLIC_PATH = "/api/auth/";
+
+    private static final String VERIFICATION_TIMER = "security.jwt.verification";
+
     private final AuthService authService;
-    private final ObjectMapper objectMapper;
+
+    private final FilterErrorResponse unauthorized;
+
+    private final Timer verificationSucceeded;
+    private final Timer verificationFailed;
+
+    public JwtVerificationFilter(AuthService authService, ObjectMapper objectMapper, MeterRegistry meterRegistry) throws JsonProcessingException {
+        this.authService = authService;
+        this.unauthorized = FilterErrorResponse.of(objectMapper, HttpStatus.UNAUTHORIZED, "Invalid token");
+
+        this.verificationSucceeded = verificationTimer(meterRegistry, "success");
+        this.verificationFailed = verificationTimer(meterRegistry, "failure");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        // authentication routes are public, so there is nothing to verify
+        return req.getRequestURI().startsWith(PUBLIC_PATH, req.getContextPath().length());
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain filterChain) throws ServletException, IOException {
         String authorization = req.getHeader(HttpHeaders.AUTHORIZATION);
 
-        if (authorization == null || authorization.isBlank() || !authorization.startsWith("Bearer ")) {
+        if (authorization == null || authorization.length() <= BEARER_PREFIX.length()
+                || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
             filterChain.doFilter(req, res);
             return;
         }
 
-        verifyToken(req, res, filterChain, authorization);
-    }
+        String token = authorization.substring(BEARER_PREFIX.length());
+        if (!verifyToken(token)) {
+            unauthorized.write(res);
+            return;
+        }
 
-    private void verifyToken(HttpServletRequest req, HttpServletResponse res, FilterChain filterChain, String authorization) throws IOException {
-        log.debug("Verify authorization: {}", authorization);
+        filterChain.doFilter(req, res);
+    }
 
-        String token = authorization.replace("Bearer ", "");
+    private boolean verifyToken(String token) {
+        long start = System.nanoTime();
         try {
             Authentication authentication = authService.exchangeToken(token);
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
-            filterChain.doFilter(req, res);
-        } catch (Exception e) {
-            log.error("Jwt token failed verification: {}", token, e);
-            writeErrorResponse(res);
+            verificationSucceeded.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return true;
+        } catch (RuntimeException e) {
+            verificationFailed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            log.debug("Jwt token failed verification: {}", e.getMessage());
+            return false;
         }
     }
 
-    private void writeErrorResponse(HttpServletResponse response) throws IOException {
-        ApiErrorDto apiError = new ApiErrorDto(HttpStatus.UNAUTHORIZED, "Invalid token");
-
-        String responseBody = objectMapper.writeValueAsString(apiError);
-
-        response.setStatus(HttpStatus.UNAUTHORIZED.value());
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setContentLength(responseBody.length());
-
-        response.getWriter().print(responseBody);
-        response.getWriter().flush();
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(VERIFICATION_TIMER)
+                .description("Time taken to verify the bearer token of a request")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
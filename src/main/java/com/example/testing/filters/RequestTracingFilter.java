@@ -0,0 +1,109 @@
+package com.example.testing.filters;
+
+import com.example.testing.tracing.RequestTrace;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traces every request: assigns trace id, which is added to the logs and returned in the response header,
+ * and logs requests that execute too many sql statements or take too long together with their spans
+ */
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+public class RequestTracingFilter extends OncePerRequestFilter {
+    public static final String TRACE_HEADER = "X-Trace-Id";
+    public static final String TRACE_MDC_KEY = "traceId";
+
+    private static final int MAX_TRACE_ID_LENGTH = 64;
+
+    private final int maxSqlStatements;
+    private final long maxDurationNanos;
+
+    public RequestTracingFilter(
+            @Value("${tracing.slow-request.max-sql-statements:20}") int maxSqlStatements,
+            @Value("${tracing.slow-request.max-duration-ms:500}") long maxDurationMs
+    ) {
+        this.maxSqlStatements = maxSqlStatements;
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain filterChain) throws ServletException, IOException {
+        String traceId = getTraceId(req);
+
+        RequestTrace trace = RequestTrace.start(traceId);
+        MDC.put(TRACE_MDC_KEY, traceId);
+        res.setHeader(TRACE_HEADER, traceId);
+
+        try {
+            filterChain.doFilter(req, res);
+        } finally {
+            report(trace, req, res);
+
+            trace.finish();
+            MDC.remove(TRACE_MDC_KEY);
+        }
+    }
+
+    private void report(RequestTrace trace, HttpServletRequest req, HttpServletResponse res) {
+        long elapsedNanos = trace.getElapsedNanos();
+
+        boolean slow = trace.getSqlCount() > maxSqlStatements || elapsedNanos > maxDurationNanos;
+        if (!slow && !log.isDebugEnabled()) {
+            return;
+        }
+
+        String message = "method={} uri={} status={} durationMs={} sqlCount={} sqlTimeMs={} spans={} droppedSpans={}";
+        Object[] args = {
+                req.getMethod(), req.getRequestURI(), res.getStatus(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), trace.getSqlCount(), TimeUnit.NANOSECONDS.toMillis(trace.getSqlNanos()),
+                trace.getSpans(), trace.getDroppedSpans()
+        };
+
+        if (slow) {
+            log.warn("Slow request " + message, args);
+        } else {
+            log.debug("Request " + message, args);
+        }
+    }
+
+    // propagate trace id of the caller if it looks sane, otherwise generate new one
+    private static String getTraceId(HttpServletRequest req) {
+        String traceId = req.getHeader(TRACE_HEADER);
+        if (traceId != null && isValidTraceId(traceId)) {
+            return traceId;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong() | Long.MIN_VALUE) + Long.toHexString(random.nextLong() | Long.MIN_VALUE);
+    }
+
+    private static boolean isValidTraceId(String traceId) {
+        if (traceId.isEmpty() || traceId.length() > MAX_TRACE_ID_LENGTH) {
+            return false;
+        }
+
+        for (int i = 0; i < traceId.length(); i++) {
+            char c = traceId.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
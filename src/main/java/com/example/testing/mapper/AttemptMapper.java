@@ -0,0 +1,131 @@
+package com.example.testing.mapper;
+
+import com.example.testing.model.attempt.AttemptAnswer;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.payload.attempt.AttemptAnswerDto;
+import com.example.testing.payload.attempt.AttemptQuestionDto;
+import com.example.testing.payload.attempt.AttemptResultDto;
+import com.example.testing.payload.attempt.AttemptSummaryDto;
+import com.example.testing.repository.projection.AttemptSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Maps attempt results, attempt questions and attempt answers to their dtos
+ */
+@RequiredArgsConstructor
+@Component
+public class AttemptMapper {
+    private final TestMapper testMapper;
+
+    /**
+     * Map attempt result to attempt result dto
+     *
+     * @param attempt attempt result to map
+     * @return attempt result dto
+     */
+    public AttemptResultDto toAttemptResultDto(AttemptResult attempt) {
+        if (attempt == null) {
+            return null;
+        }
+
+        return AttemptResultDto.builder()
+                .id(attempt.getId())
+                .userId(attempt.getUser() == null ? null : attempt.getUser().getId())
+                .testId(attempt.getTest() == null ? null : attempt.getTest().getId())
+                .attemptQuestions(toAttemptQuestionDtos(attempt.getAttemptQuestions()))
+                .score(attempt.getScore())
+                .maxScore(attempt.getMaxScore())
+                .createdAt(attempt.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Map attempt summary to attempt summary dto
+     *
+     * @param summary attempt summary to map
+     * @return attempt summary dto
+     */
+    public AttemptSummaryDto toAttemptSummaryDto(AttemptSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+
+        return AttemptSummaryDto.builder()
+                .id(summary.getAttemptId())
+                .testId(summary.getTestId())
+                .testName(summary.getTestName())
+                .score(summary.getScore())
+                .maxScore(summary.getMaxScore())
+                .createdAt(summary.getSubmittedAt())
+                .build();
+    }
+
+    /**
+     * Map attempt question to attempt question dto
+     *
+     * @param attemptQuestion attempt question to map
+     * @return attempt question dto
+     */
+    public AttemptQuestionDto toAttemptQuestionDto(AttemptQuestion attemptQuestion) {
+        if (attemptQuestion == null) {
+            return null;
+        }
+
+        return AttemptQuestionDto.builder()
+                .questionId(attemptQuestion.getQuestion() == null ? null : attemptQuestion.getQuestion().getId())
+                .question(testMapper.toQuestionDto(attemptQuestion.getQuestion()))
+                .answers(toAttemptAnswerDtos(attemptQuestion.getAnswers()))
+                .score(attemptQuestion.getScore())
+                .maxScore(attemptQuestion.getMaxScore())
+                .build();
+    }
+
+    /**
+     * Map attempt answer to attempt answer dto
+     *
+     * @param answer attempt answer to map
+     * @return attempt answer dto
+     */
+    public AttemptAnswerDto toAttemptAnswerDto(AttemptAnswer answer) {
+        if (answer == null) {
+            return null;
+        }
+
+        return AttemptAnswerDto.builder()
+                .optionId(answer.getOption() == null ? null : answer.getOption().getId())
+                .option(testMapper.toOptionDto(answer.getOption()))
+                .correct(answer.isCorrect())
+                .build();
+    }
+
+    private Set<AttemptQuestionDto> toAttemptQuestionDtos(Set<AttemptQuestion> attemptQuestions) {
+        if (attemptQuestions == null) {
+            return new HashSet<>();
+        }
+
+        Set<AttemptQuestionDto> attemptQuestionDtos = new HashSet<>(Mappers.capacity(attemptQuestions.size()));
+        for (AttemptQuestion attemptQuestion : attemptQuestions) {
+            attemptQuestionDtos.add(toAttemptQuestionDto(attemptQuestion));
+        }
+
+        return attemptQuestionDtos;
+    }
+
+    private Set<AttemptAnswerDto> toAttemptAnswerDtos(Set<AttemptAnswer> answers) {
+        if (answers == null) {
+            return new HashSet<>();
+        }
+
+        Set<AttemptAnswerDto> answerDtos = new HashSet<>(Mappers.capacity(answers.size()));
+        for (AttemptAnswer answer : answers) {
+            answerDtos.add(toAttemptAnswerDto(answer));
+        }
+
+        return answerDtos;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.testing.mapper;
+
+final class Mappers {
+
+    private Mappers() {
+    }
+
+    /**
+     * Get initial capacity of the hash set that holds given number of elements without rehashing
+     *
+     * @param size expected number of elements
+     * @return initial capacity
+     */
+    static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.testing.mapper;
+
+import com.example.testing.model.Subject;
+import com.example.testing.payload.SubjectDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps subjects to subject dtos
+ */
+@RequiredArgsConstructor
+@Component
+public class SubjectMapper {
+    private final UserMapper userMapper;
+
+    /**
+     * Map subject to subject dto
+     *
+     * @param subject subject to map
+     * @return subject dto
+     */
+    public SubjectDto toSubjectDto(Subject subject) {
+        if (subject == null) {
+            return null;
+        }
+
+        return SubjectDto.builder()
+                .id(subject.getId())
+                .educator(userMapper.toUserDto(subject.getEducator()))
+                .name(subject.getName())
+                .description(subject.getDescription())
+                .createdAt(subject.getCreatedAt())
+                .updatedAt(subject.getUpdatedAt())
+                .build();
+    }
+}
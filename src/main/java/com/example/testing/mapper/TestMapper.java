@@ -0,0 +1,172 @@
+package com.example.testing.mapper;
+
+import com.example.testing.model.test.Option;
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import com.example.testing.payload.test.ExamDto;
+import com.example.testing.payload.test.ExamOptionDto;
+import com.example.testing.payload.test.ExamQuestionDto;
+import com.example.testing.payload.test.OptionDto;
+import com.example.testing.payload.test.QuestionDto;
+import com.example.testing.payload.test.TestDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps tests, questions and options to their dtos
+ */
+@Component
+public class TestMapper {
+
+    /**
+     * Map test to test dto
+     *
+     * @param test test to map
+     * @return test dto
+     */
+    public TestDto toTestDto(Test test) {
+        if (test == null) {
+            return null;
+        }
+
+        return TestDto.builder()
+                .id(test.getId())
+                .subjectId(test.getSubject() == null ? null : test.getSubject().getId())
+                .name(test.getName())
+                .questions(toQuestionDtos(test.getQuestions()))
+                .createdAt(test.getCreatedAt())
+                .updatedAt(test.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Map test to test dto without questions, which hold the answer key
+     *
+     * @param test test to map
+     * @return test dto without questions
+     */
+    public TestDto toTestDtoWithoutQuestions(Test test) {
+        if (test == null) {
+            return null;
+        }
+
+        return TestDto.builder()
+                .id(test.getId())
+                .subjectId(test.getSubject() == null ? null : test.getSubject().getId())
+                .name(test.getName())
+                .createdAt(test.getCreatedAt())
+                .updatedAt(test.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Map question to question dto
+     *
+     * @param question question to map
+     * @return question dto
+     */
+    public QuestionDto toQuestionDto(Question question) {
+        if (question == null) {
+            return null;
+        }
+
+        return QuestionDto.builder()
+                .id(question.getId())
+                .question(question.getQuestion())
+                .options(toOptionDtos(question.getOptions()))
+                .build();
+    }
+
+    /**
+     * Map option to option dto
+     *
+     * @param option option to map
+     * @return option dto
+     */
+    public OptionDto toOptionDto(Option option) {
+        if (option == null) {
+            return null;
+        }
+
+        return OptionDto.builder()
+                .id(option.getId())
+                .option(option.getOption())
+                .correct(option.isCorrect())
+                .build();
+    }
+
+    /**
+     * Map test to the exam dto shown to students. Questions and options are ordered by id,
+     * so the same test is always rendered to the same bytes
+     *
+     * @param test test to map
+     * @return exam dto
+     */
+    public ExamDto toExamDto(Test test) {
+        if (test == null) {
+            return null;
+        }
+
+        List<Question> questions = new ArrayList<>(test.getQuestions());
+        questions.sort(Comparator.comparing(Question::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        List<ExamQuestionDto> questionDtos = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            questionDtos.add(toExamQuestionDto(question));
+        }
+
+        return ExamDto.builder()
+                .id(test.getId())
+                .subjectId(test.getSubject() == null ? null : test.getSubject().getId())
+                .name(test.getName())
+                .questions(questionDtos)
+                .build();
+    }
+
+    private ExamQuestionDto toExamQuestionDto(Question question) {
+        List<Option> options = new ArrayList<>(question.getOptions());
+        options.sort(Comparator.comparing(Option::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        List<ExamOptionDto> optionDtos = new ArrayList<>(options.size());
+        for (Option option : options) {
+            optionDtos.add(ExamOptionDto.builder().id(option.getId()).option(option.getOption()).build());
+        }
+
+        return ExamQuestionDto.builder()
+                .id(question.getId())
+                .question(question.getQuestion())
+                .options(optionDtos)
+                .build();
+    }
+
+    private Set<QuestionDto> toQuestionDtos(Set<Question> questions) {
+        if (questions == null) {
+            return new HashSet<>();
+        }
+
+        Set<QuestionDto> questionDtos = new HashSet<>(Mappers.capacity(questions.size()));
+        for (Question question : questions) {
+            questionDtos.add(toQuestionDto(question));
+        }
+
+        return questionDtos;
+    }
+
+    private Set<OptionDto> toOptionDtos(Set<Option> options) {
+        if (options == null) {
+            return new HashSet<>();
+        }
+
+        Set<OptionDto> optionDtos = new HashSet<>(Mappers.capacity(options.size()));
+        for (Option option : options) {
+            optionDtos.add(toOptionDto(option));
+        }
+
+        return optionDtos;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.testing.mapper;
+
+import com.example.testing.model.User;
+import com.example.testing.payload.UserDto;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps users to user dtos
+ */
+@Component
+public class UserMapper {
+
+    /**
+     * Map user to user dto. Password is never mapped
+     *
+     * @param user user to map
+     * @return user dto
+     */
+    public UserDto toUserDto(User user) {
+        if (user == null) {
+            return null;
+        }
+
+        return UserDto.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
+}
@@ -2,6 +2,8 @@ package com.example.testing.model;
 
 import com.example.testing.model.test.Test;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
@@ -14,11 +16,16 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "subjects")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "subjects", indexes = {
+        @Index(name = "idx_subjects_educator_created", columnList = "educator_id, created_at, id"),
+        @Index(name = "idx_subjects_created", columnList = "created_at, id")
+})
 public class Subject {
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "uuid2")
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = "com.example.testing.model.id.TimeOrderedUuidGenerator")
     private String id;
 
     @ManyToOne(cascade = CascadeType.REMOVE)
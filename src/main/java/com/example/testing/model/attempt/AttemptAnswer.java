@@ -16,7 +16,8 @@ import javax.persistence.*;
 @Table(name = "attempt_answers")
 public class AttemptAnswer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attempt_answers_seq")
+    @SequenceGenerator(name = "attempt_answers_seq", sequenceName = "attempt_answers_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -2,6 +2,7 @@ package com.example.testing.model.attempt;
 
 import com.example.testing.model.test.Question;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.util.Set;
@@ -14,13 +15,15 @@ import java.util.Set;
 @Table(name = "attempt_questions")
 public class AttemptQuestion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attempt_questions_seq")
+    @SequenceGenerator(name = "attempt_questions_seq", sequenceName = "attempt_questions_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
     private Question question;
 
     @EqualsAndHashCode.Exclude
+    @BatchSize(size = 50)
     @OneToMany(cascade = CascadeType.ALL)
     private Set<AttemptAnswer> answers;
 
@@ -3,7 +3,8 @@ package com.example.testing.model.attempt;
 import com.example.testing.model.User;
 import com.example.testing.model.test.Test;
 import lombok.*;
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.BatchSize;
+import org.springframework.data.domain.Persistable;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -14,11 +15,35 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "attempt")
-public class AttemptResult {
+@NamedEntityGraph(
+        name = AttemptResult.WITH_QUESTIONS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("user"),
+                @NamedAttributeNode(value = "test", subgraph = "test"),
+                @NamedAttributeNode(value = "attemptQuestions", subgraph = "attemptQuestions")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "test", attributeNodes = @NamedAttributeNode(value = "subject", subgraph = "subject")),
+                @NamedSubgraph(name = "subject", attributeNodes = @NamedAttributeNode("educator")),
+                @NamedSubgraph(name = "attemptQuestions", attributeNodes = {
+                        @NamedAttributeNode(value = "question", subgraph = "question"),
+                        @NamedAttributeNode(value = "answers", subgraph = "answers")
+                }),
+                @NamedSubgraph(name = "question", attributeNodes = @NamedAttributeNode("options")),
+                @NamedSubgraph(name = "answers", attributeNodes = @NamedAttributeNode("option"))
+        }
+)
+@Table(name = "attempt", indexes = {
+        @Index(name = "idx_attempt_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_attempt_test_created", columnList = "test_id, created_at, id")
+})
+public class AttemptResult implements Persistable<String> {
+    public static final String WITH_QUESTIONS_GRAPH = "AttemptResult.withQuestions";
+
+    /**
+     * Assigned before the attempt is saved, so the result can be returned before it is written
+     */
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "uuid2")
     private String id;
 
     @ManyToOne
@@ -28,6 +53,7 @@ public class AttemptResult {
     private Test test;
 
     @EqualsAndHashCode.Exclude
+    @BatchSize(size = 50)
     @OneToMany(cascade = CascadeType.ALL)
     private Set<AttemptQuestion> attemptQuestions;
 
@@ -35,4 +61,20 @@ public class AttemptResult {
     private Integer maxScore;
 
     private LocalDateTime createdAt;
+
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
 }
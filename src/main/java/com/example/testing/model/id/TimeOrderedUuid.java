@@ -0,0 +1,37 @@
+package com.example.testing.model.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Version 7 uuids: 48 bits of unix time in milliseconds followed by random bits.
+ * Ids created later sort after the earlier ones, so inserts go to the right edge of the primary key index
+ * instead of random pages
+ */
+public final class TimeOrderedUuid {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private TimeOrderedUuid() {
+    }
+
+    public static String generate() {
+        return create(System.currentTimeMillis()).toString();
+    }
+
+    static UUID create(long timestamp) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long msb = (timestamp & 0xFFFF_FFFF_FFFFL) << 16
+                | 0x7000L
+                | (random[0] & 0x0FL) << 8
+                | (random[1] & 0xFFL);
+
+        long lsb = 0x8000_0000_0000_0000L | (random[2] & 0x3FL) << 56;
+        for (int i = 3; i < random.length; i++) {
+            lsb |= (random[i] & 0xFFL) << (8 * (random.length - 1 - i));
+        }
+
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.testing.model.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+
+/**
+ * Generates {@link TimeOrderedUuid} string ids
+ */
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return TimeOrderedUuid.generate();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.testing.model.stats;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Stripe of the statistics of the test question
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(QuestionStatsShard.Key.class)
+@Table(name = "question_stats")
+public class QuestionStatsShard {
+    @Id
+    private String testId;
+
+    @Id
+    private Integer shard;
+
+    @Id
+    private Long questionId;
+
+    private long answered;
+
+    private long correct;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String testId;
+        private Integer shard;
+        private Long questionId;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.testing.model.stats;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Stripe of the score histogram bucket of the test. Buckets split score percentage into equal ranges
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(TestScoreBucket.Key.class)
+@Table(name = "test_score_buckets")
+public class TestScoreBucket {
+    public static final int BUCKETS = 10;
+
+    @Id
+    private String testId;
+
+    @Id
+    private Integer shard;
+
+    @Id
+    private Integer bucket;
+
+    private long attempts;
+
+    /**
+     * Get bucket of the score
+     *
+     * @param score    score of the attempt
+     * @param maxScore max score of the attempt
+     * @return index of the bucket
+     */
+    public static int bucketOf(int score, int maxScore) {
+        if (maxScore <= 0) {
+            return 0;
+        }
+
+        return Math.max(0, Math.min(BUCKETS - 1, score * BUCKETS / maxScore));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String testId;
+        private Integer shard;
+        private Integer bucket;
+    }
+}
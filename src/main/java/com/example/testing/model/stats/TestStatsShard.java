@@ -0,0 +1,44 @@
+package com.example.testing.model.stats;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * One of the stripes of the test statistics. Submissions update a random stripe,
+ * so concurrent submissions of the same test don't wait for a lock on a single row.
+ * Stripes are summed up on read
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@IdClass(TestStatsShard.Key.class)
+@Table(name = "test_stats")
+public class TestStatsShard {
+    @Id
+    private String testId;
+
+    @Id
+    private Integer shard;
+
+    private long attempts;
+
+    private long scoreSum;
+
+    private long scoreSquaresSum;
+
+    private Integer lowestScore;
+
+    private Integer highestScore;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String testId;
+        private Integer shard;
+    }
+}
@@ -3,6 +3,9 @@ package com.example.testing.model.test;
 import com.example.testing.model.Subject;
 import com.example.testing.model.attempt.AttemptResult;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
@@ -15,13 +18,22 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(
+        name = Test.WITH_QUESTIONS_GRAPH,
+        attributeNodes = @NamedAttributeNode(value = "questions", subgraph = "questions"),
+        subgraphs = @NamedSubgraph(name = "questions", attributeNodes = @NamedAttributeNode("options"))
+)
 @Table(name = "tests", indexes = {
         @Index(name = "idx_tests_subject", columnList = "subject_id")
 })
 public class Test {
+    public static final String WITH_QUESTIONS_GRAPH = "Test.withQuestions";
+
     @Id
-    @GeneratedValue(generator = "uuid")
-    @GenericGenerator(name = "uuid", strategy = "uuid2")
+    @GeneratedValue(generator = "time-ordered-uuid")
+    @GenericGenerator(name = "time-ordered-uuid", strategy = "com.example.testing.model.id.TimeOrderedUuidGenerator")
     private String id;
 
     @ManyToOne
@@ -31,6 +43,8 @@ public class Test {
 
     @EqualsAndHashCode.Exclude
     @Builder.Default
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(cascade = CascadeType.ALL)
     private Set<Question> questions = new HashSet<>();
 
@@ -0,0 +1,24 @@
+package com.example.testing.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageDto<T> {
+    @Builder.Default
+    private List<T> items = new ArrayList<>();
+
+    private Integer page;
+
+    private int limit;
+
+    private String nextCursor;
+}
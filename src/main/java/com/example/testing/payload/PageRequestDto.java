@@ -0,0 +1,24 @@
+package com.example.testing.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageRequestDto {
+    @Min(value = 0, message = "Page must be positive or zero")
+    private Integer page;
+
+    private String cursor;
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be up to 100")
+    private Integer limit;
+}
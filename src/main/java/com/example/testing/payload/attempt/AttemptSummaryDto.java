@@ -0,0 +1,26 @@
+package com.example.testing.payload.attempt;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptSummaryDto {
+    private String id;
+
+    private String testId;
+
+    private String testName;
+
+    private Integer score;
+
+    private Integer maxScore;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,23 @@
+package com.example.testing.payload.attempt;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAttemptItemDto {
+    @NotBlank(message = "Test id is required")
+    private String testId;
+
+    @Valid
+    @NotNull(message = "Attempt is required")
+    private AttemptDto attempt;
+}
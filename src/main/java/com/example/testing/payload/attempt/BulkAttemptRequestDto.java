@@ -0,0 +1,24 @@
+package com.example.testing.payload.attempt;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAttemptRequestDto {
+    @Valid
+    @NotEmpty(message = "At least one attempt is required")
+    @Size(max = 1000, message = "No more than 1000 attempts can be submitted at once")
+    @Builder.Default
+    private List<BulkAttemptItemDto> attempts = new ArrayList<>();
+}
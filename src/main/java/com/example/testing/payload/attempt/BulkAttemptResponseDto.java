@@ -0,0 +1,25 @@
+package com.example.testing.payload.attempt;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAttemptResponseDto {
+    private int saved;
+
+    private int accepted;
+
+    private int failed;
+
+    // results in the order of the submitted attempts
+    @Builder.Default
+    private List<BulkAttemptResultDto> results = new ArrayList<>();
+}
@@ -0,0 +1,40 @@
+package com.example.testing.payload.attempt;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAttemptResultDto {
+    // position of the attempt in the request
+    private int index;
+
+    private String testId;
+
+    private Status status;
+
+    private AttemptResultDto result;
+
+    private String error;
+
+    public enum Status {
+        // accepted attempts are queued and saved later when attempts are written behind
+        SAVED, ACCEPTED, FAILED
+    }
+
+    public static BulkAttemptResultDto saved(int index, String testId, AttemptResultDto result) {
+        return new BulkAttemptResultDto(index, testId, Status.SAVED, result, null);
+    }
+
+    public static BulkAttemptResultDto accepted(int index, String testId, AttemptResultDto result) {
+        return new BulkAttemptResultDto(index, testId, Status.ACCEPTED, result, null);
+    }
+
+    public static BulkAttemptResultDto failed(int index, String testId, String error) {
+        return new BulkAttemptResultDto(index, testId, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.testing.payload.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionStatsDto {
+    private Long questionId;
+
+    private long answered;
+
+    private long correct;
+
+    /**
+     * Share of all attempts of the test in which the question was answered correctly
+     */
+    private Double correctRate;
+}
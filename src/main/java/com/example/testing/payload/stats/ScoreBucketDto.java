@@ -0,0 +1,24 @@
+package com.example.testing.payload.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreBucketDto {
+    /**
+     * Lower bound of the score percentage, inclusive
+     */
+    private int fromPercent;
+
+    /**
+     * Upper bound of the score percentage, exclusive except for the last bucket
+     */
+    private int toPercent;
+
+    private long attempts;
+}
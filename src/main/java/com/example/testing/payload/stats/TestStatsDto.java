@@ -0,0 +1,33 @@
+package com.example.testing.payload.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestStatsDto {
+    private String testId;
+
+    private long attempts;
+
+    private Double averageScore;
+
+    private Double scoreStandardDeviation;
+
+    private Integer lowestScore;
+
+    private Integer highestScore;
+
+    @Builder.Default
+    private List<ScoreBucketDto> histogram = new ArrayList<>();
+
+    @Builder.Default
+    private List<QuestionStatsDto> questions = new ArrayList<>();
+}
@@ -0,0 +1,22 @@
+package com.example.testing.payload.test;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Test as it is shown to the student taking it, without the answer key
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamDto {
+    private String id;
+    private String subjectId;
+    private String name;
+    private List<ExamQuestionDto> questions;
+}
@@ -0,0 +1,15 @@
+package com.example.testing.payload.test;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamOptionDto {
+    private Long id;
+    private String option;
+}
@@ -0,0 +1,18 @@
+package com.example.testing.payload.test;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamQuestionDto {
+    private Long id;
+    private String question;
+    private List<ExamOptionDto> options;
+}
@@ -3,15 +3,82 @@ package com.example.testing.repository;
 import com.example.testing.model.User;
 import com.example.testing.model.attempt.AttemptResult;
 import com.example.testing.model.test.Test;
+import com.example.testing.repository.projection.AttemptExportRow;
+import com.example.testing.repository.projection.AttemptSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface AttemptResultRepository extends JpaRepository<AttemptResult, String> {
 
-    List<AttemptResult> findByUser(User user);
+    @Override
+    @EntityGraph(AttemptResult.WITH_QUESTIONS_GRAPH)
+    Optional<AttemptResult> findById(String id);
+
+    Slice<AttemptResult> findByUser(User user, Pageable pageable);
+
+    @Query("select a from AttemptResult a where a.user = :user " +
+            "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id))")
+    Slice<AttemptResult> findByUserAfter(
+            @Param("user") User user,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+            Pageable pageable
+    );
+
+    /**
+     * Get summaries of the attempts of the user. Sort of the pageable must use attempt properties
+     */
+    @Query("select a.id as attemptId, t.id as testId, t.name as testName, a.score as score, " +
+            "a.maxScore as maxScore, a.createdAt as submittedAt " +
+            "from AttemptResult a join a.test t where a.user = :user")
+    Slice<AttemptSummary> findSummariesByUser(@Param("user") User user, Pageable pageable);
+
+    @Query("select a.id as attemptId, t.id as testId, t.name as testName, a.score as score, " +
+            "a.maxScore as maxScore, a.createdAt as submittedAt " +
+            "from AttemptResult a join a.test t where a.user = :user " +
+            "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id))")
+    Slice<AttemptSummary> findSummariesByUserAfter(
+            @Param("user") User user,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+            Pageable pageable
+    );
+
+    Slice<AttemptResult> findByTest(Test test, Pageable pageable);
+
+    @Query("select a from AttemptResult a where a.test = :test " +
+            "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id))")
+    Slice<AttemptResult> findByTestAfter(
+            @Param("test") Test test,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+            Pageable pageable
+    );
 
-    List<AttemptResult> findByTest(Test test);
+    /**
+     * Stream export rows of the attempts of the test ordered by creation time, id of the attempt and id of the question.
+     * Must be consumed and closed inside a transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select a.id as attemptId, u.id as userId, u.email as userEmail, a.createdAt as createdAt, " +
+            "a.score as score, a.maxScore as maxScore, " +
+            "q.id as questionId, aq.score as questionScore, aq.maxScore as questionMaxScore " +
+            "from AttemptResult a join a.user u left join a.attemptQuestions aq left join aq.question q " +
+            "where a.test = :test order by a.createdAt, a.id, q.id")
+    Stream<AttemptExportRow> streamExportRowsByTest(@Param("test") Test test);
 }
@@ -0,0 +1,66 @@
+package com.example.testing.repository;
+
+import com.example.testing.model.stats.QuestionStatsShard;
+import com.example.testing.repository.projection.QuestionStatsTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
+@Repository
+public interface QuestionStatsRepository extends JpaRepository<QuestionStatsShard, QuestionStatsShard.Key> {
+
+    /**
+     * Count answers of the questions in the stripe
+     *
+     * @return number of updated rows
+     */
+    @Modifying
+    @Query("update QuestionStatsShard q set q.answered = q.answered + 1 " +
+            "where q.testId = :testId and q.shard = :shard and q.questionId in :questionIds")
+    int incrementAnswered(
+            @Param("testId") String testId, @Param("shard") int shard,
+            @Param("questionIds") Collection<Long> questionIds
+    );
+
+    /**
+     * Count correct answers of the questions in the stripe
+     *
+     * @return number of updated rows
+     */
+    @Modifying
+    @Query("update QuestionStatsShard q set q.correct = q.correct + 1 " +
+            "where q.testId = :testId and q.shard = :shard and q.questionId in :questionIds")
+    int incrementCorrect(
+            @Param("testId") String testId, @Param("shard") int shard,
+            @Param("questionIds") Collection<Long> questionIds
+    );
+
+    /**
+     * Create rows of the stripe for the questions of the test that don't have them.
+     * Questions are read from the database, so they must be flushed beforehand
+     */
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "question_stats"))
+    @Modifying
+    @Query(value = "insert into question_stats (test_id, shard, question_id, answered, correct) " +
+            "select tq.test_id, :shard, tq.questions_id, 0, 0 from tests_questions tq " +
+            "where tq.test_id = :testId and not exists (select 1 from question_stats q " +
+            "where q.test_id = tq.test_id and q.shard = :shard and q.question_id = tq.questions_id)", nativeQuery = true)
+    void insertMissingQuestions(@Param("testId") String testId, @Param("shard") int shard);
+
+    @Query("select q.questionId as questionId, sum(q.answered) as answered, sum(q.correct) as correct " +
+            "from QuestionStatsShard q where q.testId = :testId group by q.questionId order by q.questionId")
+    List<QuestionStatsTotals> sumByTestId(@Param("testId") String testId);
+
+    @Modifying
+    @Query("delete from QuestionStatsShard q where q.testId = :testId")
+    void deleteByTestId(@Param("testId") String testId);
+}
@@ -2,13 +2,33 @@ package com.example.testing.repository;
 
 import com.example.testing.model.Subject;
 import com.example.testing.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @Repository
 public interface SubjectRepository extends JpaRepository<Subject, String> {
 
-    List<Subject> findAllByEducator(User user);
+    Slice<Subject> findAllBy(Pageable pageable);
+
+    @Query("select s from Subject s " +
+            "where s.createdAt < :createdAt or (s.createdAt = :createdAt and s.id < :id)")
+    Slice<Subject> findAllAfter(
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") String id, Pageable pageable
+    );
+
+    Slice<Subject> findAllByEducator(User user, Pageable pageable);
+
+    @Query("select s from Subject s where s.educator = :educator " +
+            "and (s.createdAt < :createdAt or (s.createdAt = :createdAt and s.id < :id))")
+    Slice<Subject> findAllByEducatorAfter(
+            @Param("educator") User educator,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+            Pageable pageable
+    );
 }
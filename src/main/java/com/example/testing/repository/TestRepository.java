@@ -1,14 +1,36 @@
 package com.example.testing.repository;
 
 import com.example.testing.model.Subject;
+import com.example.testing.model.User;
 import com.example.testing.model.test.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Repository
 public interface TestRepository extends JpaRepository<Test, String> {
 
-    List<Test> findBySubject(Subject subject);
+    @Override
+    @EntityGraph(Test.WITH_QUESTIONS_GRAPH)
+    Optional<Test> findById(String id);
+
+    Slice<Test> findBySubject(Subject subject, Pageable pageable);
+
+    @Query("select t from Test t where t.subject = :subject " +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id))")
+    Slice<Test> findBySubjectAfter(
+            @Param("subject") Subject subject,
+            @Param("createdAt") LocalDateTime createdAt, @Param("id") String id,
+            Pageable pageable
+    );
+
+    @Query("select s.educator from Test t join t.subject s where t.id = :testId")
+    Optional<User> findEducatorById(@Param("testId") String testId);
 }
@@ -0,0 +1,48 @@
+package com.example.testing.repository;
+
+import com.example.testing.model.stats.TestScoreBucket;
+import com.example.testing.repository.projection.ScoreBucketTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
+@Repository
+public interface TestScoreBucketRepository extends JpaRepository<TestScoreBucket, TestScoreBucket.Key> {
+
+    /**
+     * Add attempt to the stripe of the bucket
+     *
+     * @return number of updated rows, 0 if stripe doesn't exist yet
+     */
+    @Modifying
+    @Query("update TestScoreBucket b set b.attempts = b.attempts + 1 " +
+            "where b.testId = :testId and b.shard = :shard and b.bucket = :bucket")
+    int increment(@Param("testId") String testId, @Param("shard") int shard, @Param("bucket") int bucket);
+
+    /**
+     * Create the bucket of the stripe unless it exists
+     */
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "test_score_buckets"))
+    @Modifying
+    @Query(value = "insert into test_score_buckets (test_id, shard, bucket, attempts) " +
+            "select :testId, :shard, :bucket, 0 " +
+            "where not exists (select 1 from test_score_buckets " +
+            "where test_id = :testId and shard = :shard and bucket = :bucket)", nativeQuery = true)
+    void insertMissingBucket(@Param("testId") String testId, @Param("shard") int shard, @Param("bucket") int bucket);
+
+    @Query("select b.bucket as bucket, sum(b.attempts) as attempts from TestScoreBucket b " +
+            "where b.testId = :testId group by b.bucket order by b.bucket")
+    List<ScoreBucketTotals> sumByTestId(@Param("testId") String testId);
+
+    @Modifying
+    @Query("delete from TestScoreBucket b where b.testId = :testId")
+    void deleteByTestId(@Param("testId") String testId);
+}
@@ -0,0 +1,62 @@
+package com.example.testing.repository;
+
+import com.example.testing.model.stats.TestStatsShard;
+import com.example.testing.repository.projection.TestStatsTotals;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+
+import static org.hibernate.annotations.QueryHints.NATIVE_SPACES;
+
+@Repository
+public interface TestStatsRepository extends JpaRepository<TestStatsShard, TestStatsShard.Key> {
+
+    /**
+     * Add attempt score to the stripe
+     *
+     * @return number of updated rows, 0 if stripe doesn't exist yet
+     */
+    @Modifying
+    @Query("update TestStatsShard s set s.attempts = s.attempts + 1, " +
+            "s.scoreSum = s.scoreSum + :score, " +
+            "s.scoreSquaresSum = s.scoreSquaresSum + :scoreSquare, " +
+            "s.lowestScore = case when s.lowestScore is null or s.lowestScore > :score then :score else s.lowestScore end, " +
+            "s.highestScore = case when s.highestScore is null or s.highestScore < :score then :score else s.highestScore end " +
+            "where s.testId = :testId and s.shard = :shard")
+    int addScore(
+            @Param("testId") String testId, @Param("shard") int shard,
+            @Param("score") int score, @Param("scoreSquare") long scoreSquare
+    );
+
+    /**
+     * Create the stripe unless it exists
+     */
+    @QueryHints(@QueryHint(name = NATIVE_SPACES, value = "test_stats"))
+    @Modifying
+    @Query(value = "insert into test_stats (test_id, shard, attempts, score_sum, score_squares_sum) " +
+            "select :testId, :shard, 0, 0, 0 " +
+            "where not exists (select 1 from test_stats where test_id = :testId and shard = :shard)", nativeQuery = true)
+    void insertMissingShard(@Param("testId") String testId, @Param("shard") int shard);
+
+    /**
+     * Find tests that have fewer stripes than configured, e.g. created before the statistics or the stripes were added
+     */
+    @Query("select t.id from Test t where (select count(s) from TestStatsShard s where s.testId = t.id) < :shards")
+    List<String> findTestIdsWithMissingShards(@Param("shards") long shards);
+
+    @Query("select coalesce(sum(s.attempts), 0) as attempts, coalesce(sum(s.scoreSum), 0) as scoreSum, " +
+            "coalesce(sum(s.scoreSquaresSum), 0) as scoreSquaresSum, " +
+            "min(s.lowestScore) as lowestScore, max(s.highestScore) as highestScore " +
+            "from TestStatsShard s where s.testId = :testId")
+    TestStatsTotals sumByTestId(@Param("testId") String testId);
+
+    @Modifying
+    @Query("delete from TestStatsShard s where s.testId = :testId")
+    void deleteByTestId(@Param("testId") String testId);
+}
@@ -0,0 +1,27 @@
+package com.example.testing.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of the attempt export. There is one row per answered question of the attempt,
+ * question fields are null if the attempt has no questions
+ */
+public interface AttemptExportRow {
+    String getAttemptId();
+
+    String getUserId();
+
+    String getUserEmail();
+
+    LocalDateTime getCreatedAt();
+
+    Integer getScore();
+
+    Integer getMaxScore();
+
+    Long getQuestionId();
+
+    Integer getQuestionScore();
+
+    Integer getQuestionMaxScore();
+}
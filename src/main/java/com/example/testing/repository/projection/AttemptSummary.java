@@ -0,0 +1,20 @@
+package com.example.testing.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Attempt without its questions and answers, with the name of the test
+ */
+public interface AttemptSummary {
+    String getAttemptId();
+
+    String getTestId();
+
+    String getTestName();
+
+    Integer getScore();
+
+    Integer getMaxScore();
+
+    LocalDateTime getSubmittedAt();
+}
@@ -0,0 +1,12 @@
+package com.example.testing.repository.projection;
+
+/**
+ * Question statistics summed up over all stripes
+ */
+public interface QuestionStatsTotals {
+    Long getQuestionId();
+
+    Long getAnswered();
+
+    Long getCorrect();
+}
@@ -0,0 +1,10 @@
+package com.example.testing.repository.projection;
+
+/**
+ * Number of attempts in the score bucket summed up over all stripes
+ */
+public interface ScoreBucketTotals {
+    Integer getBucket();
+
+    Long getAttempts();
+}
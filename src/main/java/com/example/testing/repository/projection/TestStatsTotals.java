@@ -0,0 +1,16 @@
+package com.example.testing.repository.projection;
+
+/**
+ * Test statistics summed up over all stripes
+ */
+public interface TestStatsTotals {
+    Long getAttempts();
+
+    Long getScoreSum();
+
+    Long getScoreSquaresSum();
+
+    Integer getLowestScore();
+
+    Integer getHighestScore();
+}
@@ -0,0 +1,22 @@
+package com.example.testing.service;
+
+import com.example.testing.model.User;
+import com.example.testing.service.export.ExportFormat;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Export of the test attempts
+ */
+public interface AttemptExportService {
+
+    /**
+     * Verify that user is the educator of the test subject and
+     * get body that streams attempts of the test in given format
+     *
+     * @param testId id of the test
+     * @param format export format
+     * @param user   authenticated user
+     * @return response body that writes attempts as they are read from the database
+     */
+    StreamingResponseBody exportAttemptsByTestId(String testId, ExportFormat format, User user);
+}
@@ -1,8 +1,13 @@
 package com.example.testing.service;
 
 import com.example.testing.model.User;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.attempt.AttemptDto;
 import com.example.testing.payload.attempt.AttemptResultDto;
+import com.example.testing.payload.attempt.AttemptSummaryDto;
+import com.example.testing.payload.attempt.BulkAttemptItemDto;
+import com.example.testing.payload.attempt.BulkAttemptResponseDto;
 
 import java.util.List;
 
@@ -21,6 +26,17 @@ public interface AttemptService {
      */
     AttemptResultDto processAttempt(String testId, AttemptDto attemptDto, User user);
 
+    /**
+     * Process batch of attempts of one or many tests.
+     * Every test is loaded once per batch and attempts are saved in chunked transactions.
+     * Attempt that fails doesn't affect the rest of the batch
+     *
+     * @param attempts attempts with ids of their tests
+     * @param user     authenticated user
+     * @return result of every attempt in the order of submission
+     */
+    BulkAttemptResponseDto processAttempts(List<BulkAttemptItemDto> attempts, User user);
+
     /**
      * Get attempt result by id
      *
@@ -31,18 +47,30 @@ public interface AttemptService {
     AttemptResultDto getAttemptById(String attemptId, User user);
 
     /**
-     * Get attempts by id of the test and verify that user is the educator of the test subject
+     * Get page of attempts by id of the test and verify that user is the educator of the test subject
      *
-     * @param testId id of the test
-     * @param user   authenticated user
-     * @return list of attempt
+     * @param testId      id of the test
+     * @param user        authenticated user
+     * @param pageRequest page or cursor and limit
+     * @return page of attempts
      */
-    List<AttemptResultDto> getAttemptsByTestId(String testId, User user);
+    PageDto<AttemptResultDto> getAttemptsByTestId(String testId, User user, PageRequestDto pageRequest);
 
     /**
-     * Get attempts by user
-     * @param user authenticated user
-     * @return list of attempts
+     * Get page of attempts by user
+     *
+     * @param user        authenticated user
+     * @param pageRequest page or cursor and limit
+     * @return page of attempts
+     */
+    PageDto<AttemptResultDto> getAttemptsByUser(User user, PageRequestDto pageRequest);
+
+    /**
+     * Get page of attempt summaries of the user, without questions and answers
+     *
+     * @param user        authenticated user
+     * @param pageRequest page or cursor and limit
+     * @return page of attempt summaries
      */
-    List<AttemptResultDto> getAttemptsByUser(User user);
+    PageDto<AttemptSummaryDto> getAttemptSummariesByUser(User user, PageRequestDto pageRequest);
 }
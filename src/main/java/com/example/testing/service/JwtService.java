@@ -1,6 +1,7 @@
 package com.example.testing.service;
 
 import com.example.testing.model.User;
+import com.example.testing.service.auth.VerifiedToken;
 
 /**
  * JWT service
@@ -30,4 +31,12 @@ public interface JwtService {
      * @return id of the subject user
      */
     String decodeToken(String token);
+
+    /**
+     * Verify jwt token
+     *
+     * @param token jwt token
+     * @return subject and expiration time of the token
+     */
+    VerifiedToken verifyToken(String token);
 }
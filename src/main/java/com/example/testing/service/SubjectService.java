@@ -2,10 +2,10 @@ package com.example.testing.service;
 
 import com.example.testing.model.Subject;
 import com.example.testing.model.User;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.SubjectDto;
 
-import java.util.List;
-
 /**
  * Subject service
  */
@@ -47,19 +47,21 @@ public interface SubjectService {
     SubjectDto getSubjectById(String subjectId);
 
     /**
-     * Get all subjects
+     * Get page of all subjects
      *
-     * @return list of the fetched subjects
+     * @param pageRequest page or cursor and limit
+     * @return page of the fetched subjects
      */
-    List<SubjectDto> getAllSubjects();
+    PageDto<SubjectDto> getAllSubjects(PageRequestDto pageRequest);
 
     /**
-     * Get subjects by id of the educator
+     * Get page of subjects by id of the educator
      *
-     * @param educatorId id of the educator
-     * @return list of the subjects of given educator
+     * @param educatorId  id of the educator
+     * @param pageRequest page or cursor and limit
+     * @return page of the subjects of given educator
      */
-    List<SubjectDto> getSubjectsByEducatorId(String educatorId);
+    PageDto<SubjectDto> getSubjectsByEducatorId(String educatorId, PageRequestDto pageRequest);
 
     /**
      * Get subject entity
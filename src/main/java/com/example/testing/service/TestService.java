@@ -2,9 +2,11 @@ package com.example.testing.service;
 
 import com.example.testing.model.User;
 import com.example.testing.model.test.Test;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.test.TestDto;
-
-import java.util.List;
+import com.example.testing.service.cache.RenderedExam;
+import com.example.testing.service.cache.TestSnapshot;
 
 /**
  * Test service
@@ -39,20 +41,31 @@ public interface TestService {
     void deleteTest(String testId, User user);
 
     /**
-     * Get test with given id
+     * Get test with given id, including the answer key. Only the educator of the test subject can get it
      *
      * @param testId id of the test
+     * @param user   authenticated user
      * @return retrieved test
      */
-    TestDto getTestById(String testId);
+    TestDto getTestById(String testId, User user);
+
+    /**
+     * Get exam of the test with given id, rendered for students without the answer key
+     *
+     * @param testId id of the test
+     * @return rendered exam
+     */
+    RenderedExam getExam(String testId);
 
     /**
-     * Get tests for given subjects
+     * Get page of tests for given subject. Questions are included only for the educator of the subject
      *
-     * @param subjectId id of the subject
-     * @return retrieved tests
+     * @param subjectId   id of the subject
+     * @param user        authenticated user
+     * @param pageRequest page or cursor and limit
+     * @return page of retrieved tests
      */
-    List<TestDto> getTestsBySubjectId(String subjectId);
+    PageDto<TestDto> getTestsBySubjectId(String subjectId, User user, PageRequestDto pageRequest);
 
     /**
      * Get test entity
@@ -61,4 +74,12 @@ public interface TestService {
      * @return fetched test entity
      */
     Test getTestEntity(String testId);
+
+    /**
+     * Get cached read-only snapshot of the test, loaded from the primary database
+     *
+     * @param testId id of the test
+     * @return test snapshot
+     */
+    TestSnapshot getTestSnapshot(String testId);
 }
@@ -0,0 +1,47 @@
+package com.example.testing.service;
+
+import com.example.testing.model.User;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.payload.stats.TestStatsDto;
+
+/**
+ * Incrementally maintained statistics of the test attempts
+ */
+public interface TestStatsService {
+
+    /**
+     * Create the stats stripes of the test with rows of its questions. Must be called in the transaction
+     * that saves the test, so submissions only update existing rows
+     *
+     * @param testId id of the test
+     */
+    void createTestStats(String testId);
+
+    /**
+     * Create stats stripes of the tests that miss some, e.g. created before the statistics or the stripes were added
+     */
+    void createMissingTestStats();
+
+    /**
+     * Add graded attempt to the statistics of its test. Must be called in the transaction that saves the attempt
+     *
+     * @param attempt graded attempt
+     */
+    void recordAttempt(AttemptResult attempt);
+
+    /**
+     * Get statistics of the test and verify that user is the educator of the test subject
+     *
+     * @param testId id of the test
+     * @param user   authenticated user
+     * @return statistics of the test
+     */
+    TestStatsDto getTestStats(String testId, User user);
+
+    /**
+     * Delete statistics of the test
+     *
+     * @param testId id of the test
+     */
+    void deleteTestStats(String testId);
+}
@@ -0,0 +1,26 @@
+package com.example.testing.service.attempt;
+
+import com.example.testing.model.attempt.AttemptResult;
+
+/**
+ * Persists graded attempts
+ */
+public interface AttemptWriter {
+
+    /**
+     * Persist graded attempt or accept it to be persisted later
+     *
+     * @param attempt graded attempt with assigned id
+     * @return attempt to return to the client
+     */
+    AttemptResult write(AttemptResult attempt);
+
+    /**
+     * Check if written attempts are only queued and persisted later
+     *
+     * @return true if attempts aren't saved by the time write returns
+     */
+    default boolean isDeferred() {
+        return false;
+    }
+}
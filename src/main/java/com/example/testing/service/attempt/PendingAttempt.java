@@ -0,0 +1,114 @@
+package com.example.testing.service.attempt;
+
+import com.example.testing.model.User;
+import com.example.testing.model.attempt.AttemptAnswer;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.test.Option;
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Graded attempt that wasn't persisted before shutdown. Written to the spill file and replayed on startup
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingAttempt {
+    private String id;
+    private String userId;
+    private String testId;
+    private Integer score;
+    private Integer maxScore;
+    private LocalDateTime createdAt;
+
+    @Builder.Default
+    private List<PendingQuestion> questions = new ArrayList<>();
+
+    public static PendingAttempt of(AttemptResult attempt) {
+        List<PendingQuestion> questions = new ArrayList<>(attempt.getAttemptQuestions().size());
+        for (AttemptQuestion attemptQuestion : attempt.getAttemptQuestions()) {
+            List<Long> answers = new ArrayList<>(attemptQuestion.getAnswers().size());
+            List<Boolean> correct = new ArrayList<>(attemptQuestion.getAnswers().size());
+            for (AttemptAnswer answer : attemptQuestion.getAnswers()) {
+                answers.add(answer.getOption().getId());
+                correct.add(answer.isCorrect());
+            }
+
+            questions.add(new PendingQuestion(
+                    attemptQuestion.getQuestion().getId(),
+                    attemptQuestion.getScore(), attemptQuestion.getMaxScore(),
+                    answers, correct
+            ));
+        }
+
+        return PendingAttempt.builder()
+                .id(attempt.getId())
+                .userId(attempt.getUser().getId())
+                .testId(attempt.getTest().getId())
+                .score(attempt.getScore())
+                .maxScore(attempt.getMaxScore())
+                .createdAt(attempt.getCreatedAt())
+                .questions(questions)
+                .build();
+    }
+
+    /**
+     * Rebuild attempt entity that references existing user, test, questions and options by id
+     *
+     * @param entityManager entity manager of the current transaction
+     * @return attempt entity
+     */
+    public AttemptResult toAttemptResult(EntityManager entityManager) {
+        Set<AttemptQuestion> attemptQuestions = new HashSet<>();
+        for (PendingQuestion question : questions) {
+            Set<AttemptAnswer> answers = new HashSet<>();
+            for (int i = 0; i < question.getOptionIds().size(); i++) {
+                answers.add(AttemptAnswer.builder()
+                        .option(entityManager.getReference(Option.class, question.getOptionIds().get(i)))
+                        .correct(question.getCorrect().get(i))
+                        .build());
+            }
+
+            attemptQuestions.add(AttemptQuestion.builder()
+                    .question(entityManager.getReference(Question.class, question.getQuestionId()))
+                    .answers(answers)
+                    .score(question.getScore())
+                    .maxScore(question.getMaxScore())
+                    .build());
+        }
+
+        return AttemptResult.builder()
+                .id(id)
+                .user(entityManager.getReference(User.class, userId))
+                .test(entityManager.getReference(Test.class, testId))
+                .attemptQuestions(attemptQuestions)
+                .score(score)
+                .maxScore(maxScore)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PendingQuestion {
+        private Long questionId;
+        private Integer score;
+        private Integer maxScore;
+        private List<Long> optionIds = new ArrayList<>();
+        private List<Boolean> correct = new ArrayList<>();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.testing.service.attempt;
+
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.repository.AttemptResultRepository;
+import com.example.testing.service.TestStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Persists attempts in the transaction of the caller, or in its own short transaction if there is none
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "attempts.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+public class SynchronousAttemptWriter implements AttemptWriter {
+    private final AttemptResultRepository attemptRepository;
+    private final TestStatsService testStatsService;
+
+    @Override
+    @Transactional
+    public AttemptResult write(AttemptResult attempt) {
+        log.debug("Save attempt {}", attempt.getId());
+
+        attempt = attemptRepository.save(attempt);
+        testStatsService.recordAttempt(attempt);
+
+        return attempt;
+    }
+}
@@ -0,0 +1,401 @@
+package com.example.testing.service.attempt;
+
+import com.example.testing.exceptions.ServiceUnavailableException;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.repository.AttemptResultRepository;
+import com.example.testing.service.TestStatsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acknowledges graded attempts immediately and persists them in batches from a bounded queue.
+ * Submissions are rejected when the queue is full.
+ * Attempts that are still queued on shutdown or can't be saved are appended to the spill file,
+ * which is replayed on the next startup. Batch that the writer didn't finish before the shutdown timeout
+ * is spilled too, replay skips attempts of it that were saved after all.
+ * Spilled lines that can't be read, e.g. the last one cut off by a crash, are moved to the rejected file
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "attempts.write-behind.enabled", havingValue = "true")
+public class WriteBehindAttemptWriter implements AttemptWriter, SmartLifecycle {
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final AttemptResultRepository attemptRepository;
+    private final TestStatsService testStatsService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<AttemptResult> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final long shutdownTimeoutMs;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path rejectedFile;
+
+    // guards spill file appends, separate from the lifecycle monitor held by stop while it waits for the writer
+    private final Object spillLock = new Object();
+    // guards hand over of the batch the writer is saving
+    private final Object batchLock = new Object();
+
+    private volatile boolean running;
+    private Thread writerThread;
+    private List<AttemptResult> inFlight;
+    private boolean closed;
+
+    public WriteBehindAttemptWriter(
+            AttemptResultRepository attemptRepository,
+            TestStatsService testStatsService,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${attempts.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${attempts.write-behind.batch-size:100}") int batchSize,
+            @Value("${attempts.write-behind.offer-timeout-ms:50}") long offerTimeoutMs,
+            @Value("${attempts.write-behind.shutdown-timeout-ms:30000}") long shutdownTimeoutMs,
+            @Value("${attempts.write-behind.spill-file:data/pending-attempts.ndjson}") String spillFile
+    ) {
+        this.attemptRepository = attemptRepository;
+        this.testStatsService = testStatsService;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.spillFile = Paths.get(spillFile);
+        this.replayFile = Paths.get(spillFile + ".replay");
+        this.rejectedFile = Paths.get(spillFile + ".rejected");
+    }
+
+    @Override
+    public AttemptResult write(AttemptResult attempt) {
+        if (!running) {
+            log.error("Attempt writer isn't running. Reject attempt {}", attempt.getId());
+            throw new ServiceUnavailableException("Attempts can't be accepted at the moment");
+        }
+
+        try {
+            if (!queue.offer(attempt, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                log.error("Attempt queue is full. Reject attempt {}", attempt.getId());
+                throw new ServiceUnavailableException("Too many attempts are being processed, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Attempts can't be accepted at the moment");
+        }
+
+        log.debug("Attempt {} is queued to be saved", attempt.getId());
+        return attempt;
+    }
+
+    @Override
+    public boolean isDeferred() {
+        return true;
+    }
+
+    @Override
+    public synchronized void start() {
+        // attempts that fail to replay are spilled again, so they are replayed on the next start, not right away
+        moveSpillFileToReplayFile();
+        replay(replayFile);
+
+        synchronized (batchLock) {
+            closed = false;
+        }
+
+        running = true;
+        writerThread = new Thread(this::drain, "attempt-writer");
+        writerThread.start();
+
+        log.debug("Attempt writer started");
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+
+        try {
+            writerThread.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<AttemptResult> remaining = new ArrayList<>();
+        synchronized (batchLock) {
+            // writer that is still running gives up its batch and spills whatever it takes from the queue later
+            closed = true;
+            if (inFlight != null) {
+                remaining.addAll(inFlight);
+                inFlight = null;
+            }
+        }
+
+        if (writerThread.isAlive()) {
+            log.error("Attempt writer didn't finish in {} ms", shutdownTimeoutMs);
+            writerThread.interrupt();
+        }
+
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.error("Spill {} unsaved attempts to {}", remaining.size(), spillFile);
+            spill(remaining);
+        }
+
+        log.debug("Attempt writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before and stop after the web server, so no accepted attempt is left in the queue
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2048;
+    }
+
+    /**
+     * Get number of the attempts waiting to be saved
+     *
+     * @return size of the queue
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            AttemptResult attempt;
+            try {
+                attempt = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (attempt == null) {
+                continue;
+            }
+
+            List<AttemptResult> batch = new ArrayList<>(batchSize);
+            batch.add(attempt);
+            queue.drainTo(batch, batchSize - 1);
+
+            boolean stopped;
+            synchronized (batchLock) {
+                stopped = closed;
+                if (!stopped) {
+                    inFlight = batch;
+                }
+            }
+
+            if (stopped) {
+                log.error("Attempt writer is stopped. Spill {} attempts to {}", batch.size(), spillFile);
+                spill(batch);
+                return;
+            }
+
+            try {
+                save(batch);
+            } catch (RuntimeException e) {
+                // the writer keeps running, otherwise the queue fills up and every submission is rejected
+                log.error("Failed to save or spill batch of {} attempts: {}", batch.size(), ids(batch), e);
+            } finally {
+                synchronized (batchLock) {
+                    if (inFlight == batch) {
+                        inFlight = null;
+                    }
+                }
+            }
+        }
+    }
+
+    private void save(List<AttemptResult> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> saveBatch(batch));
+            log.debug("Saved batch of {} attempts", batch.size());
+            return;
+        } catch (RuntimeException e) {
+            log.error("Failed to save batch of {} attempts. Save them one by one", batch.size(), e);
+        }
+
+        // entities of the failed batch may hold ids assigned by the rolled back transaction, so they are rebuilt
+        for (AttemptResult attempt : batch) {
+            if (!ownsBatch(batch)) {
+                log.error("Batch has been spilled on shutdown, stop saving it");
+                return;
+            }
+
+            PendingAttempt pending = PendingAttempt.of(attempt);
+            saveOrSpill(pending);
+        }
+    }
+
+    private boolean ownsBatch(List<AttemptResult> batch) {
+        synchronized (batchLock) {
+            return inFlight == batch;
+        }
+    }
+
+    private void saveOrSpill(PendingAttempt pending) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!attemptRepository.existsById(pending.getId())) {
+                    saveBatch(List.of(pending.toAttemptResult(entityManager)));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to save attempt {}. Spill it to {}", pending.getId(), spillFile, e);
+            appendToSpillFile(List.of(pending));
+        }
+    }
+
+    private void saveBatch(List<AttemptResult> batch) {
+        attemptRepository.saveAll(batch);
+        for (AttemptResult attempt : batch) {
+            testStatsService.recordAttempt(attempt);
+        }
+    }
+
+    private void spill(List<AttemptResult> attempts) {
+        List<PendingAttempt> pending = new ArrayList<>(attempts.size());
+        for (AttemptResult attempt : attempts) {
+            pending.add(PendingAttempt.of(attempt));
+        }
+
+        appendToSpillFile(pending);
+    }
+
+    private void appendToSpillFile(List<PendingAttempt> pending) {
+        synchronized (spillLock) {
+            writeToSpillFile(pending);
+        }
+    }
+
+    private void writeToSpillFile(List<PendingAttempt> pending) {
+        try {
+            Path parent = spillFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (PendingAttempt attempt : pending) {
+                    writer.write(objectMapper.writeValueAsString(attempt));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to spill {} attempts to {}", pending.size(), spillFile, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<String> ids(List<AttemptResult> attempts) {
+        List<String> ids = new ArrayList<>(attempts.size());
+        for (AttemptResult attempt : attempts) {
+            ids.add(attempt.getId());
+        }
+
+        return ids;
+    }
+
+    private void moveSpillFileToReplayFile() {
+        if (!Files.exists(spillFile)) {
+            return;
+        }
+
+        try {
+            if (!Files.exists(replayFile)) {
+                Files.move(spillFile, replayFile);
+                return;
+            }
+
+            // replay of the previous start was interrupted, its rest is replayed together with the spill file
+            try (OutputStream out = Files.newOutputStream(replayFile, StandardOpenOption.APPEND)) {
+                // the last line of the interrupted replay file may be cut off
+                out.write(System.lineSeparator().getBytes(StandardCharsets.UTF_8));
+                Files.copy(spillFile, out);
+            }
+            Files.delete(spillFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to move spill file " + spillFile, e);
+        }
+    }
+
+    private void replay(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        log.debug("Replay attempts spilled to {}", file);
+
+        int replayed = 0;
+        int rejected = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                PendingAttempt pending;
+                try {
+                    pending = objectMapper.readValue(line, PendingAttempt.class);
+                } catch (JsonProcessingException e) {
+                    log.error("Failed to read spilled attempt. Move it to {}: {}", rejectedFile, line, e);
+                    reject(line);
+                    rejected++;
+                    continue;
+                }
+
+                saveOrSpill(pending);
+                replayed++;
+            }
+
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay attempts from " + file, e);
+        }
+
+        log.debug("Replayed {} attempts from {}, rejected {}", replayed, file, rejected);
+    }
+
+    private void reject(String line) throws IOException {
+        Files.writeString(rejectedFile, line + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
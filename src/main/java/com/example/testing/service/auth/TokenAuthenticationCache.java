@@ -0,0 +1,131 @@
+package com.example.testing.service.auth;
+
+import com.example.testing.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the users authenticated by verified jwt tokens.
+ * Entry lives until the token expires, but no longer than the configured time to live,
+ * so changes of the user that bypass invalidation are picked up eventually
+ */
+@Slf4j
+@Component
+public class TokenAuthenticationCache implements MeterBinder {
+    private final Cache<String, TokenAuthentication> cache;
+
+    public TokenAuthenticationCache(
+            @Value("${security.jwt.cache.maximum-size:10000}") long maximumSize,
+            @Value("${security.jwt.cache.time-to-live-min:10}") long timeToLiveMin
+    ) {
+        long timeToLiveNanos = Duration.ofMinutes(timeToLiveMin).toNanos();
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(timeToLiveNanos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get user authenticated by the token
+     *
+     * @param token         jwt token
+     * @param authenticator verifies token and loads user if token isn't cached
+     * @return authenticated user
+     */
+    public User get(String token, Function<String, TokenAuthentication> authenticator) {
+        return cache.get(token, authenticator).getUser();
+    }
+
+    /**
+     * Invalidate all tokens of the user with given id.
+     * If there is an active transaction, tokens are invalidated again after commit
+     *
+     * @param userId id of the user
+     */
+    public void invalidateUser(String userId) {
+        log.debug("Invalidate cached tokens of the user {}", userId);
+
+        invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "tokens");
+    }
+
+    private void invalidate(String userId) {
+        cache.asMap().values().removeIf(authentication -> userId.equals(authentication.getUser().getId()));
+    }
+
+    /**
+     * User authenticated by the token and expiration time of the token
+     */
+    @Getter
+    @AllArgsConstructor(staticName = "of")
+    public static class TokenAuthentication {
+        private final User user;
+        private final Instant expiresAt;
+    }
+
+    private static class TokenExpiry implements Expiry<String, TokenAuthentication> {
+        private final long timeToLiveNanos;
+
+        TokenExpiry(long timeToLiveNanos) {
+            this.timeToLiveNanos = timeToLiveNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String token, TokenAuthentication authentication, long currentTime) {
+            if (authentication.getExpiresAt() == null) {
+                return timeToLiveNanos;
+            }
+
+            long untilExpiration = Duration.between(Instant.now(), authentication.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExpiration, timeToLiveNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, TokenAuthentication authentication, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, authentication, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, TokenAuthentication authentication, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.testing.service.auth;
+
+import com.example.testing.model.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Drops cached authentications of the user when the user is updated, e.g. disabled, or removed.
+ * The cache is looked up lazily, so persistence slices without the authentication beans can still create the listener
+ */
+@RequiredArgsConstructor
+@Component
+public class UserChangeListener {
+    private final ObjectProvider<TokenAuthenticationCache> tokenAuthenticationCache;
+
+    @PostUpdate
+    @PostRemove
+    void onChange(User user) {
+        tokenAuthenticationCache.ifAvailable(cache -> cache.invalidateUser(user.getId()));
+    }
+}
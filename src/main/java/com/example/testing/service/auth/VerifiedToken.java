@@ -0,0 +1,25 @@
+package com.example.testing.service.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Jwt token that passed signature and expiration checks
+ */
+@Getter
+@ToString
+@AllArgsConstructor(staticName = "of")
+public class VerifiedToken {
+    /**
+     * Id of the user the token was issued to
+     */
+    private final String subject;
+
+    /**
+     * Expiration time of the token, null if token doesn't expire
+     */
+    private final Instant expiresAt;
+}
@@ -0,0 +1,38 @@
+package com.example.testing.service.cache;
+
+import com.example.testing.mapper.TestMapper;
+import com.example.testing.model.test.Test;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Renders the student view of the test to bytes, which are written to the response without further serialization
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ExamRenderer {
+    private final TestMapper testMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Render exam of the given test
+     *
+     * @param test test with loaded questions and options
+     * @return rendered exam
+     */
+    public RenderedExam render(Test test) {
+        log.debug("Render exam of the test with id {}", test.getId());
+
+        try {
+            return RenderedExam.of(objectMapper.writeValueAsBytes(testMapper.toExamDto(test)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Failed to render exam of the test " + test.getId(), e);
+        }
+    }
+}
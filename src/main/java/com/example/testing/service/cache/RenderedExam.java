@@ -0,0 +1,134 @@
+package com.example.testing.service.cache;
+
+import lombok.Getter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exam serialized once per test version and shared between requests.
+ * Both representations are written to the response as is, so the arrays must never be modified
+ */
+@Getter
+public final class RenderedExam {
+    // first bytes of the sha-256 digest are enough to tell versions of the same test apart
+    private static final int ETAG_BYTES = 16;
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+
+    private RenderedExam(byte[] body, byte[] gzipBody, String etag, String gzipEtag) {
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.etag = etag;
+        this.gzipEtag = gzipEtag;
+    }
+
+    /**
+     * Create rendered exam of the serialized exam
+     *
+     * @param body serialized exam
+     * @return rendered exam with gzip representation and strong etags of both representations
+     */
+    public static RenderedExam of(byte[] body) {
+        String hash = hash(body);
+
+        // compressing costs nothing per request, so the smallest output is worth the time
+        byte[] gzipBody = gzip(body);
+        if (gzipBody.length >= body.length) {
+            gzipBody = null;
+        }
+
+        return new RenderedExam(body, gzipBody, '"' + hash + '"', '"' + hash + GZIP_ETAG_SUFFIX + '"');
+    }
+
+    /**
+     * Check if the gzip representation is worth sending
+     *
+     * @return true if gzip representation is smaller than the body
+     */
+    public boolean hasGzipBody() {
+        return gzipBody != null;
+    }
+
+    /**
+     * Get number of bytes held by the exam
+     *
+     * @return total length of the body and the gzip representation
+     */
+    public int getSize() {
+        return body.length + (gzipBody != null ? gzipBody.length : 0);
+    }
+
+    /**
+     * Check if the client already has this version of the exam
+     *
+     * @param ifNoneMatch value of the If-None-Match header
+     * @return true if any of the listed etags matches any representation of the exam
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+
+            // If-None-Match uses weak comparison
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+
+            if (tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+
+            StringBuilder hash = new StringBuilder(ETAG_BYTES * 2);
+            for (int i = 0; i < ETAG_BYTES; i++) {
+                hash.append(Character.forDigit((digest[i] >> 4) & 0xF, 16))
+                        .append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 isn't supported", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new BestCompressionGzipOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress exam", e);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static final class BestCompressionGzipOutputStream extends GZIPOutputStream {
+        BestCompressionGzipOutputStream(ByteArrayOutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
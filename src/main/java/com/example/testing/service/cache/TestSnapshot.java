@@ -0,0 +1,98 @@
+package com.example.testing.service.cache;
+
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import com.example.testing.payload.test.OptionDto;
+import com.example.testing.payload.test.QuestionDto;
+import com.example.testing.payload.test.TestDto;
+import com.example.testing.service.grading.AnswerKey;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Read-only snapshot of the test shared between requests.
+ * Test graph is fully initialized when the snapshot is created and becomes detached
+ * once the loading transaction completes, so it must never be modified
+ */
+@Getter
+public final class TestSnapshot {
+    private final Test test;
+    // callers get copies, so the cached dto can't be changed through them
+    @Getter(AccessLevel.NONE)
+    private final TestDto testDto;
+    private final AnswerKey answerKey;
+    private final int weight;
+
+    private TestSnapshot(Test test, TestDto testDto, AnswerKey answerKey, int weight) {
+        this.test = test;
+        this.testDto = testDto;
+        this.answerKey = answerKey;
+        this.weight = weight;
+    }
+
+    /**
+     * Create snapshot of the given test
+     *
+     * @param test    test with loaded questions and options
+     * @param testDto mapped test
+     * @return test snapshot
+     */
+    public static TestSnapshot of(Test test, TestDto testDto) {
+        // weight of the snapshot is the number of entities it holds
+        int weight = 1;
+        for (Question question : test.getQuestions()) {
+            weight += 1 + question.getOptions().size();
+        }
+
+        return new TestSnapshot(test, testDto, AnswerKey.compile(test), weight);
+    }
+
+    /**
+     * Get copy of the mapped test
+     *
+     * @return test dto that the caller is free to modify
+     */
+    public TestDto getTestDto() {
+        return TestDto.builder()
+                .id(testDto.getId())
+                .subjectId(testDto.getSubjectId())
+                .name(testDto.getName())
+                .questions(copyQuestions(testDto.getQuestions()))
+                .createdAt(testDto.getCreatedAt())
+                .updatedAt(testDto.getUpdatedAt())
+                .build();
+    }
+
+    private static Set<QuestionDto> copyQuestions(Set<QuestionDto> questions) {
+        if (questions == null) {
+            return null;
+        }
+
+        Set<QuestionDto> copies = new HashSet<>();
+        for (QuestionDto question : questions) {
+            copies.add(QuestionDto.builder()
+                    .id(question.getId())
+                    .question(question.getQuestion())
+                    .options(copyOptions(question.getOptions()))
+                    .build());
+        }
+
+        return copies;
+    }
+
+    private static Set<OptionDto> copyOptions(Set<OptionDto> options) {
+        if (options == null) {
+            return null;
+        }
+
+        Set<OptionDto> copies = new HashSet<>();
+        for (OptionDto option : options) {
+            copies.add(new OptionDto(option.getId(), option.getOption(), option.isCorrect()));
+        }
+
+        return copies;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.testing.service.cache;
+
+import com.example.testing.model.test.Test;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the test snapshots keyed by id of the test.
+ * Snapshots are evicted by their weight, which is the number of questions and options they hold.
+ * Rendered exams are much larger than the entities, so they are held in a separate cache bounded by their bytes
+ */
+@Slf4j
+@Component
+public class TestSnapshotCache implements MeterBinder {
+    private final Cache<String, TestSnapshot> cache;
+    // keyed by the snapshot instance, so an exam never outlives the version of the test it was rendered from
+    private final Cache<TestSnapshot, RenderedExam> exams;
+
+    public TestSnapshotCache(@Value("${cache.tests.maximum-weight:100000}") long maximumWeight,
+                             @Value("${cache.exams.maximum-bytes:67108864}") long maximumExamBytes) {
+        this.exams = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(maximumExamBytes)
+                .weigher((TestSnapshot snapshot, RenderedExam exam) -> exam.getSize())
+                .recordStats()
+                .build();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String testId, TestSnapshot snapshot) -> snapshot.getWeight())
+                .removalListener((String testId, TestSnapshot snapshot, RemovalCause cause) -> {
+                    if (snapshot != null) {
+                        exams.invalidate(snapshot);
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Get snapshot of the test with given id. Concurrent requests for the same missing test wait for a single load
+     *
+     * @param testId id of the test
+     * @param loader loads snapshot if it isn't cached
+     * @return test snapshot
+     */
+    public TestSnapshot get(String testId, Function<String, TestSnapshot> loader) {
+        return cache.get(testId, loader);
+    }
+
+    /**
+     * Get exam of the snapshot. Exam is rendered on the first fetch, so snapshots loaded only for grading don't pay for it,
+     * and concurrent fetches of the same snapshot wait for a single rendering
+     *
+     * @param snapshot snapshot of the test
+     * @param renderer renders exam of the test
+     * @return rendered exam
+     */
+    public RenderedExam getExam(TestSnapshot snapshot, Function<Test, RenderedExam> renderer) {
+        return exams.get(snapshot, key -> renderer.apply(key.getTest()));
+    }
+
+    /**
+     * Invalidate snapshot of the test with given id.
+     * If there is an active transaction, snapshot is invalidated again after commit,
+     * so a snapshot loaded concurrently from the old state doesn't survive
+     *
+     * @param testId id of the test
+     */
+    public void invalidate(String testId) {
+        log.debug("Invalidate snapshot of the test with id {}", testId);
+
+        cache.invalidate(testId);
+        afterCommit(() -> cache.invalidate(testId));
+    }
+
+    /**
+     * Invalidate snapshots of all tests of the subject with given id
+     *
+     * @param subjectId id of the subject
+     */
+    public void invalidateBySubject(String subjectId) {
+        log.debug("Invalidate snapshots of the tests of the subject with id {}", subjectId);
+
+        Runnable invalidation = () -> cache.asMap().values()
+                .removeIf(snapshot -> snapshot.getTest().getSubject() != null
+                        && subjectId.equals(snapshot.getTest().getSubject().getId()));
+
+        invalidation.run();
+        afterCommit(invalidation);
+    }
+
+    /**
+     * Get hit, miss and eviction counters of the cache
+     *
+     * @return cache statistics
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Get approximate number of the cached snapshots
+     *
+     * @return number of the cached snapshots
+     */
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "tests");
+        CaffeineCacheMetrics.monitor(registry, exams, "exams");
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
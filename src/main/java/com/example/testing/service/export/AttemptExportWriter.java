@@ -0,0 +1,29 @@
+package com.example.testing.service.export;
+
+import com.example.testing.repository.projection.AttemptExportRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes export rows to the output as they are read from the database.
+ * Rows must be ordered by attempt, so that rows of the same attempt are consecutive
+ */
+public interface AttemptExportWriter extends Closeable {
+
+    /**
+     * Write export row
+     *
+     * @param row export row
+     * @throws IOException if output can't be written
+     */
+    void write(AttemptExportRow row) throws IOException;
+
+    /**
+     * Write buffered data and flush the output. Underlying stream isn't closed
+     *
+     * @throws IOException if output can't be written
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,99 @@
+package com.example.testing.service.export;
+
+import com.example.testing.repository.projection.AttemptExportRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes one csv line per answered question of the attempt.
+ * Text cells that a spreadsheet would evaluate as a formula are prefixed with an apostrophe
+ */
+public class CsvAttemptExportWriter implements AttemptExportWriter {
+    static final String HEADER = "attempt_id,user_id,user_email,created_at,score,max_score," +
+            "question_id,question_score,question_max_score";
+
+    private final Writer writer;
+
+    public CsvAttemptExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        writer.write(HEADER);
+        writer.write('\n');
+    }
+
+    @Override
+    public void write(AttemptExportRow row) throws IOException {
+        writeText(row.getAttemptId());
+        writer.write(',');
+        writeText(row.getUserId());
+        writer.write(',');
+        writeText(row.getUserEmail());
+        writer.write(',');
+        writeValue(row.getCreatedAt());
+        writer.write(',');
+        writeValue(row.getScore());
+        writer.write(',');
+        writeValue(row.getMaxScore());
+        writer.write(',');
+        writeValue(row.getQuestionId());
+        writer.write(',');
+        writeValue(row.getQuestionScore());
+        writer.write(',');
+        writeValue(row.getQuestionMaxScore());
+        writer.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void writeText(String value) throws IOException {
+        if (value != null && isFormula(value)) {
+            value = '\'' + value;
+        }
+
+        writeValue(value);
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        String string = value.toString();
+        if (!needsQuoting(string)) {
+            writer.write(string);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(string.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean isFormula(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.testing.service.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Format of the exported attempts
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    /**
+     * Get format by its name, case insensitive
+     *
+     * @param value name of the format
+     * @return export format
+     */
+    public static ExportFormat of(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unsupported export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.testing.service.export;
+
+import com.example.testing.repository.projection.AttemptExportRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes one json object per attempt, with questions of the attempt nested in it, separated by new lines.
+ * Only the attempt that is currently being written is kept open
+ */
+public class NdjsonAttemptExportWriter implements AttemptExportWriter {
+    private final JsonGenerator generator;
+
+    private String currentAttemptId;
+
+    public NdjsonAttemptExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(AttemptExportRow row) throws IOException {
+        if (!row.getAttemptId().equals(currentAttemptId)) {
+            endAttempt();
+            startAttempt(row);
+        }
+
+        if (row.getQuestionId() != null) {
+            generator.writeStartObject();
+            generator.writeNumberField("questionId", row.getQuestionId());
+            writeNumberField("score", row.getQuestionScore());
+            writeNumberField("maxScore", row.getQuestionMaxScore());
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        endAttempt();
+        generator.close();
+    }
+
+    private void startAttempt(AttemptExportRow row) throws IOException {
+        currentAttemptId = row.getAttemptId();
+
+        generator.writeStartObject();
+        generator.writeStringField("id", row.getAttemptId());
+        generator.writeStringField("userId", row.getUserId());
+        generator.writeStringField("userEmail", row.getUserEmail());
+        generator.writeStringField("createdAt", row.getCreatedAt() == null ? null : row.getCreatedAt().toString());
+        writeNumberField("score", row.getScore());
+        writeNumberField("maxScore", row.getMaxScore());
+        generator.writeArrayFieldStart("questions");
+    }
+
+    private void endAttempt() throws IOException {
+        if (currentAttemptId == null) {
+            return;
+        }
+
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+        currentAttemptId = null;
+    }
+
+    private void writeNumberField(String name, Integer value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, value);
+        }
+    }
+}
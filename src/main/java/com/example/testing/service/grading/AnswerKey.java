@@ -0,0 +1,182 @@
+package com.example.testing.service.grading;
+
+import com.example.testing.model.attempt.AttemptAnswer;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.test.Option;
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import com.example.testing.payload.attempt.AttemptAnswerDto;
+import com.example.testing.payload.attempt.AttemptQuestionDto;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable answer key of the test.
+ * Questions and options are sorted by id once, so a submission is graded in a single pass
+ * using binary searches over primitive arrays instead of streams and maps
+ */
+@Slf4j
+public final class AnswerKey {
+    @Getter
+    private final String testId;
+
+    @Getter
+    private final LocalDateTime testUpdatedAt;
+
+    @Getter
+    private final int maxScore;
+
+    private final long[] questionIds;
+    private final Question[] questions;
+    private final int[] correctCounts;
+
+    private final long[][] optionIds;
+    private final Option[][] options;
+    private final boolean[][] correct;
+
+    private AnswerKey(Test test, Question[] questions) {
+        int size = questions.length;
+
+        this.testId = test.getId();
+        this.testUpdatedAt = test.getUpdatedAt();
+        this.questions = questions;
+        this.questionIds = new long[size];
+        this.correctCounts = new int[size];
+        this.optionIds = new long[size][];
+        this.options = new Option[size][];
+        this.correct = new boolean[size][];
+
+        int maxScore = 0;
+        for (int i = 0; i < size; i++) {
+            Question question = questions[i];
+            questionIds[i] = question.getId();
+
+            Option[] questionOptions = question.getOptions().toArray(new Option[0]);
+            Arrays.sort(questionOptions, Comparator.comparing(Option::getId));
+
+            long[] ids = new long[questionOptions.length];
+            boolean[] flags = new boolean[questionOptions.length];
+            int correctCount = 0;
+            for (int j = 0; j < questionOptions.length; j++) {
+                ids[j] = questionOptions[j].getId();
+                flags[j] = questionOptions[j].isCorrect();
+                correctCount += flags[j] ? 1 : 0;
+            }
+
+            options[i] = questionOptions;
+            optionIds[i] = ids;
+            correct[i] = flags;
+            correctCounts[i] = correctCount;
+            maxScore += correctCount;
+        }
+
+        this.maxScore = maxScore;
+    }
+
+    /**
+     * Compile answer key of the given test
+     *
+     * @param test test with loaded questions and options
+     * @return compiled answer key
+     */
+    public static AnswerKey compile(Test test) {
+        Question[] questions = test.getQuestions().toArray(new Question[0]);
+        Arrays.sort(questions, Comparator.comparing(Question::getId));
+
+        return new AnswerKey(test, questions);
+    }
+
+    /**
+     * Check if answer key has been compiled from the given state of the test
+     *
+     * @param test test to compare with
+     * @return true if test hasn't been modified since compilation
+     */
+    public boolean isCompiledFrom(Test test) {
+        return testId.equals(test.getId())
+                && (testUpdatedAt == null ? test.getUpdatedAt() == null : testUpdatedAt.equals(test.getUpdatedAt()));
+    }
+
+    /**
+     * Grade submitted answers. Every question of the test is graded,
+     * submitted questions that don't belong to the test are ignored
+     *
+     * @param attemptQuestions submitted answers
+     * @return graded attempt questions
+     */
+    public Set<AttemptQuestion> grade(Collection<AttemptQuestionDto> attemptQuestions) {
+        // match submitted questions to the questions of the test, first submission wins
+        AttemptQuestionDto[] submitted = new AttemptQuestionDto[questionIds.length];
+        for (AttemptQuestionDto attemptQuestion : attemptQuestions) {
+            int index = indexOf(questionIds, attemptQuestion.getQuestionId());
+            if (index >= 0 && submitted[index] == null) {
+                submitted[index] = attemptQuestion;
+            }
+        }
+
+        Set<AttemptQuestion> graded = new HashSet<>(capacity(questionIds.length));
+        for (int i = 0; i < questionIds.length; i++) {
+            graded.add(gradeQuestion(i, submitted[i]));
+        }
+
+        return graded;
+    }
+
+    private AttemptQuestion gradeQuestion(int index, AttemptQuestionDto attemptQuestion) {
+        int correctCount = correctCounts[index];
+
+        Set<AttemptAnswer> answers = Set.of();
+        int score = 0;
+
+        if (attemptQuestion != null && attemptQuestion.getAnswers() != null && !attemptQuestion.getAnswers().isEmpty()) {
+            Set<AttemptAnswerDto> attemptAnswers = attemptQuestion.getAnswers();
+
+            if (attemptAnswers.size() > correctCount) {
+                log.error("Possible number of answers: {}, received {}", correctCount, attemptAnswers.size());
+                throw new IllegalStateException("Invalid number of answers. Require no more than " + correctCount);
+            }
+
+            answers = new HashSet<>(capacity(attemptAnswers.size()));
+            for (AttemptAnswerDto attemptAnswer : attemptAnswers) {
+                int optionIndex = indexOf(optionIds[index], attemptAnswer.getOptionId());
+
+                if (optionIndex < 0) {
+                    log.error("There is not such option for given question: {}", attemptAnswer.getOptionId());
+                    throw new IllegalStateException("No such option: " + attemptAnswer.getOptionId());
+                }
+
+                boolean isCorrect = correct[index][optionIndex];
+                AttemptAnswer answer = AttemptAnswer.builder()
+                        .option(options[index][optionIndex])
+                        .correct(isCorrect)
+                        .build();
+
+                if (answers.add(answer) && isCorrect) {
+                    score++;
+                }
+            }
+        }
+
+        return AttemptQuestion.builder()
+                .question(questions[index])
+                .answers(answers)
+                .score(score)
+                .maxScore(correctCount)
+                .build();
+    }
+
+    private static int indexOf(long[] ids, Long id) {
+        return id == null ? -1 : Arrays.binarySearch(ids, id);
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+}
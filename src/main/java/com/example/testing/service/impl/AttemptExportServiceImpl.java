@@ -0,0 +1,90 @@
+package com.example.testing.service.impl;
+
+import com.example.testing.exceptions.ForbiddenException;
+import com.example.testing.model.User;
+import com.example.testing.model.test.Test;
+import com.example.testing.repository.AttemptResultRepository;
+import com.example.testing.repository.projection.AttemptExportRow;
+import com.example.testing.service.AttemptExportService;
+import com.example.testing.service.TestService;
+import com.example.testing.service.export.AttemptExportWriter;
+import com.example.testing.service.export.CsvAttemptExportWriter;
+import com.example.testing.service.export.ExportFormat;
+import com.example.testing.service.export.NdjsonAttemptExportWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class AttemptExportServiceImpl implements AttemptExportService {
+    private final AttemptResultRepository attemptRepository;
+    private final TestService testService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public AttemptExportServiceImpl(
+            AttemptResultRepository attemptRepository,
+            TestService testService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.attemptRepository = attemptRepository;
+        this.testService = testService;
+        this.objectMapper = objectMapper;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody exportAttemptsByTestId(String testId, ExportFormat format, User user) {
+        log.debug("Export attempts of the test with id {} as {}", testId, format);
+
+        Test test = testService.getTestEntity(testId);
+        if (!test.getSubject().getEducator().equals(user)) {
+            log.error("User {} is not the educator of the subject of the test {}", user.getId(), test.getSubject());
+            throw new ForbiddenException("Not an educator of the test subject");
+        }
+
+        return out -> transactionTemplate.executeWithoutResult(status -> export(test, format, out));
+    }
+
+    private void export(Test test, ExportFormat format, OutputStream out) {
+        long rows = 0;
+
+        try (Stream<AttemptExportRow> stream = attemptRepository.streamExportRowsByTest(test);
+             AttemptExportWriter writer = createWriter(format, out)) {
+            Iterator<AttemptExportRow> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                rows++;
+            }
+        } catch (IOException e) {
+            log.error("Failed to export attempts of the test {} after {} rows", test.getId(), rows, e);
+            throw new UncheckedIOException(e);
+        }
+
+        log.debug("Exported {} rows of the test {}", rows, test.getId());
+    }
+
+    private AttemptExportWriter createWriter(ExportFormat format, OutputStream out) throws IOException {
+        switch (format) {
+            case CSV:
+                return new CsvAttemptExportWriter(out);
+            case NDJSON:
+                return new NdjsonAttemptExportWriter(out, objectMapper);
+            default:
+                throw new IllegalStateException("Unsupported export format: " + format);
+        }
+    }
+}
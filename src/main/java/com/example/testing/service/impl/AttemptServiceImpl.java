@@ -2,78 +2,126 @@ package com.example.testing.service.impl;
 
 import com.example.testing.exceptions.ForbiddenException;
 import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.mapper.AttemptMapper;
 import com.example.testing.model.User;
-import com.example.testing.model.attempt.AttemptAnswer;
 import com.example.testing.model.attempt.AttemptQuestion;
 import com.example.testing.model.attempt.AttemptResult;
-import com.example.testing.model.test.Option;
-import com.example.testing.model.test.Question;
+import com.example.testing.model.id.TimeOrderedUuid;
 import com.example.testing.model.test.Test;
-import com.example.testing.payload.attempt.AttemptAnswerDto;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.attempt.AttemptDto;
-import com.example.testing.payload.attempt.AttemptQuestionDto;
 import com.example.testing.payload.attempt.AttemptResultDto;
+import com.example.testing.payload.attempt.AttemptSummaryDto;
+import com.example.testing.payload.attempt.BulkAttemptItemDto;
+import com.example.testing.payload.attempt.BulkAttemptResponseDto;
+import com.example.testing.payload.attempt.BulkAttemptResultDto;
 import com.example.testing.repository.AttemptResultRepository;
+import com.example.testing.repository.projection.AttemptSummary;
 import com.example.testing.service.AttemptService;
 import com.example.testing.service.TestService;
+import com.example.testing.service.attempt.AttemptWriter;
+import com.example.testing.service.cache.TestSnapshot;
+import com.example.testing.service.grading.AnswerKey;
+import com.example.testing.service.pagination.Cursor;
+import com.example.testing.service.pagination.Pagination;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
+@Timed(value = "service.method", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Transactional
 public class AttemptServiceImpl implements AttemptService {
+    // attempts of the bulk submission saved in one transaction
+    private static final int BULK_CHUNK_SIZE = 100;
+
     private final AttemptResultRepository attemptRepository;
     private final TestService testService;
-    private final ModelMapper mapper;
+    private final AttemptWriter attemptWriter;
+    private final AttemptMapper attemptMapper;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AttemptResultDto processAttempt(String testId, AttemptDto attemptDto, User user) {
         log.debug("Process attempt of the test with id {}. Attempt details: {}", testId, attemptDto);
 
-        // find test
-        Test test = testService.getTestEntity(testId);
-        Set<Question> questions = test.getQuestions();
+        // find test, the connection is used only if the snapshot isn't cached
+        TestSnapshot snapshot = testService.getTestSnapshot(testId);
 
-        // check answers
-        Set<AttemptQuestion> attemptQuestions = checkQuestionsAnswers(questions, List.copyOf(attemptDto.getQuestions()));
+        // grade without holding a connection
+        AttemptResult attempt = gradeAttempt(snapshot, attemptDto, user);
 
-        AttemptResult attempt = AttemptResult.builder()
-                .user(user)
-                .test(test)
-                .createdAt(LocalDateTime.now())
-                .build();
+        // save attempt in a short transaction or queue it to be saved
+        return mapAndWrite(attempt);
+    }
 
-        // get score and assign attempt to attempt questions
-        int score = 0;
-        int maxScore = 0;
-        for (var question : attemptQuestions) {
-            score += question.getScore();
-            maxScore += question.getMaxScore();
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkAttemptResponseDto processAttempts(List<BulkAttemptItemDto> attempts, User user) {
+        log.debug("Process {} attempts in bulk", attempts.size());
+
+        BulkAttemptResultDto[] results = new BulkAttemptResultDto[attempts.size()];
+
+        // grade attempts, loading every test only once
+        Map<String, TestSnapshot> snapshots = new HashMap<>();
+        Map<String, ResourceNotFoundException> missingTests = new HashMap<>();
+
+        List<GradedAttempt> graded = new ArrayList<>(attempts.size());
+        for (int i = 0; i < attempts.size(); i++) {
+            BulkAttemptItemDto item = attempts.get(i);
+
+            try {
+                TestSnapshot snapshot = getTestSnapshot(item.getTestId(), snapshots, missingTests);
+                graded.add(new GradedAttempt(i, snapshot, item.getAttempt(), gradeAttempt(snapshot, item.getAttempt(), user)));
+            } catch (ResourceNotFoundException | IllegalStateException e) {
+                log.debug("Attempt {} of the bulk is rejected: {}", i, e.getMessage());
+                results[i] = BulkAttemptResultDto.failed(i, item.getTestId(), e.getMessage());
+            }
         }
 
-        attempt.setAttemptQuestions(attemptQuestions);
-        attempt.setScore(score);
-        attempt.setMaxScore(maxScore);
+        // save graded attempts in chunks, each in its own transaction
+        for (int from = 0; from < graded.size(); from += BULK_CHUNK_SIZE) {
+            writeChunk(graded.subList(from, Math.min(from + BULK_CHUNK_SIZE, graded.size())), results);
+        }
 
-        // save attempt
-        attempt = attemptRepository.save(attempt);
-        return mapAttemptResultToAttemptResultDto(attempt);
+        int saved = 0;
+        int accepted = 0;
+        for (BulkAttemptResultDto result : results) {
+            if (result.getStatus() == BulkAttemptResultDto.Status.SAVED) {
+                saved++;
+            } else if (result.getStatus() == BulkAttemptResultDto.Status.ACCEPTED) {
+                accepted++;
+            }
+        }
+
+        return BulkAttemptResponseDto.builder()
+                .saved(saved)
+                .accepted(accepted)
+                .failed(results.length - saved - accepted)
+                .results(Arrays.asList(results))
+                .build();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AttemptResultDto getAttemptById(String attemptId, User user) {
         log.debug("Get attempt by id {}", attemptId);
 
@@ -89,8 +137,9 @@ public class AttemptServiceImpl implements AttemptService {
     }
 
     @Override
-    public List<AttemptResultDto> getAttemptsByTestId(String testId, User user) {
-        log.debug("Get attempts by id of the test: {}", testId);
+    @Transactional(readOnly = true)
+    public PageDto<AttemptResultDto> getAttemptsByTestId(String testId, User user, PageRequestDto pageRequest) {
+        log.debug("Get attempts by id of the test: {}. Page request: {}", testId, pageRequest);
 
         Test test = testService.getTestEntity(testId);
         if(!test.getSubject().getEducator().equals(user)) {
@@ -98,81 +147,166 @@ public class AttemptServiceImpl implements AttemptService {
             throw new ForbiddenException("Not an educator of the test subject");
         }
 
-        return attemptRepository.findByTest(test)
-                .stream().map(this::mapAttemptResultToAttemptResultDto).collect(Collectors.toList());
+        Pageable pageable = Pagination.pageable(pageRequest);
+        Slice<AttemptResult> attempts = Pagination.cursor(pageRequest)
+                .map(cursor -> attemptRepository.findByTestAfter(test, cursor.getCreatedAt(), cursor.getId(), pageable))
+                .orElseGet(() -> attemptRepository.findByTest(test, pageable));
+
+        return Pagination.toPageDto(attempts, pageRequest, this::mapAttemptResultToAttemptResultDto, AttemptServiceImpl::getCursor);
     }
 
     @Override
-    public List<AttemptResultDto> getAttemptsByUser(User user) {
-        log.debug("Get attempts by user: {}", user.getId());
+    @Transactional(readOnly = true)
+    public PageDto<AttemptResultDto> getAttemptsByUser(User user, PageRequestDto pageRequest) {
+        log.debug("Get attempts by user: {}. Page request: {}", user.getId(), pageRequest);
+
+        Pageable pageable = Pagination.pageable(pageRequest);
+        Slice<AttemptResult> attempts = Pagination.cursor(pageRequest)
+                .map(cursor -> attemptRepository.findByUserAfter(user, cursor.getCreatedAt(), cursor.getId(), pageable))
+                .orElseGet(() -> attemptRepository.findByUser(user, pageable));
 
-        return attemptRepository.findByUser(user)
-                .stream().map(this::mapAttemptResultToAttemptResultDto).collect(Collectors.toList());
+        return Pagination.toPageDto(attempts, pageRequest, this::mapAttemptResultToAttemptResultDto, AttemptServiceImpl::getCursor);
     }
 
-    private Set<AttemptQuestion> checkQuestionsAnswers(Set<Question> questions, List<AttemptQuestionDto> attemptQuestions) {
-        return questions.stream()
-                .map(question -> checkQuestionAnswer(question, attemptQuestions))
-                .collect(Collectors.toSet());
+    @Override
+    @Transactional(readOnly = true)
+    public PageDto<AttemptSummaryDto> getAttemptSummariesByUser(User user, PageRequestDto pageRequest) {
+        log.debug("Get attempt summaries by user: {}. Page request: {}", user.getId(), pageRequest);
+
+        Pageable pageable = Pagination.pageable(pageRequest);
+        Slice<AttemptSummary> summaries = Pagination.cursor(pageRequest)
+                .map(cursor -> attemptRepository.findSummariesByUserAfter(user, cursor.getCreatedAt(), cursor.getId(), pageable))
+                .orElseGet(() -> attemptRepository.findSummariesByUser(user, pageable));
+
+        return Pagination.toPageDto(summaries, pageRequest, attemptMapper::toAttemptSummaryDto, AttemptServiceImpl::getSummaryCursor);
     }
 
-    private AttemptQuestion checkQuestionAnswer(Question question, List<AttemptQuestionDto> attemptQuestions) {
-        // get attempt for given question
-        Optional<AttemptQuestionDto> questionAttemptDto = attemptQuestions.stream()
-                .filter(attemptQuestion -> question.getId().equals(attemptQuestion.getQuestionId())).findFirst();
+    private AttemptResult gradeAttempt(TestSnapshot snapshot, AttemptDto attemptDto, User user) {
+        return gradeAttempt(snapshot, attemptDto, user, TimeOrderedUuid.generate(), LocalDateTime.now());
+    }
 
-        // get answers for given question
-        Set<AttemptAnswer> answers = Set.of();
-        if (questionAttemptDto.isPresent()) {
-            answers = checkQuestionAnswer(question, questionAttemptDto.get());
-        }
+    private AttemptResult gradeAttempt(
+            TestSnapshot snapshot, AttemptDto attemptDto, User user, String id, LocalDateTime createdAt
+    ) {
+        // check answers against compiled answer key
+        AnswerKey answerKey = snapshot.getAnswerKey();
+        Set<AttemptQuestion> attemptQuestions = answerKey.grade(attemptDto.getQuestions());
 
-        AttemptQuestion attemptQuestion = AttemptQuestion.builder().question(question)
-                .maxScore(question.getCorrectOptions().size()).build();
+        AttemptResult attempt = AttemptResult.builder()
+                .id(id)
+                .user(user)
+                .test(snapshot.getTest())
+                .createdAt(createdAt)
+                .build();
 
-        // set answer question and count correct answers
-        int correctAnswers = 0;
-        for (var answer : answers) {
-            correctAnswers += answer.isCorrect() ? 1 : 0;
+        // get score and assign attempt to attempt questions
+        int score = 0;
+        for (var question : attemptQuestions) {
+            score += question.getScore();
         }
 
-        attemptQuestion.setAnswers(answers);
-        attemptQuestion.setScore(correctAnswers);
+        attempt.setAttemptQuestions(attemptQuestions);
+        attempt.setScore(score);
+        attempt.setMaxScore(answerKey.getMaxScore());
 
-        return attemptQuestion;
+        return attempt;
     }
 
-    private Set<AttemptAnswer> checkQuestionAnswer(Question question, AttemptQuestionDto attemptQuestion) {
-        Set<AttemptAnswerDto> attemptQuestionAnswers = attemptQuestion.getAnswers();
+    private TestSnapshot getTestSnapshot(
+            String testId, Map<String, TestSnapshot> snapshots, Map<String, ResourceNotFoundException> missingTests
+    ) {
+        TestSnapshot snapshot = snapshots.get(testId);
+        if (snapshot != null) {
+            return snapshot;
+        }
 
-        if (attemptQuestionAnswers.size() > question.getCorrectOptions().size()) {
-            log.error("Possible number of answers: {}, received {}", question.getCorrectOptions().size(), attemptQuestionAnswers.size());
-            throw new IllegalStateException("Invalid number of answers. Require no more than " + question.getCorrectOptions().size());
+        ResourceNotFoundException missing = missingTests.get(testId);
+        if (missing != null) {
+            throw missing;
         }
 
-        // collect options to map with ids as keys and options as values
-        Map<Long, Option> options = question.getOptions().stream()
-                .collect(Collectors.toMap(Option::getId, Function.identity()));
+        try {
+            snapshot = testService.getTestSnapshot(testId);
+        } catch (ResourceNotFoundException e) {
+            missingTests.put(testId, e);
+            throw e;
+        }
 
-        return attemptQuestionAnswers.stream()
-                .map(answer -> checkQuestionAnswer(answer, options)).collect(Collectors.toSet());
+        snapshots.put(testId, snapshot);
+        return snapshot;
     }
 
-    private AttemptAnswer checkQuestionAnswer(AttemptAnswerDto answer, Map<Long, Option> options) {
-        Option option = options.get(answer.getOptionId());
-
-        if (option == null) {
-            log.error("There is not such option for given question: {}", answer.getOptionId());
-            throw new IllegalStateException("No such option: " + answer.getOptionId());
+    private void writeChunk(List<GradedAttempt> chunk, BulkAttemptResultDto[] results) {
+        try {
+            List<AttemptResultDto> written = transactionTemplate.execute(status -> {
+                List<AttemptResultDto> res = new ArrayList<>(chunk.size());
+                for (GradedAttempt graded : chunk) {
+                    res.add(mapAndWrite(graded.attempt));
+                }
+                return res;
+            });
+
+            for (int i = 0; i < chunk.size(); i++) {
+                markWritten(chunk.get(i), written.get(i), results);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to save chunk of {} attempts, saving them one by one", chunk.size(), e);
+
+            // isolate attempts that can't be saved from the rest of the chunk
+            for (GradedAttempt graded : chunk) {
+                try {
+                    // entities of the rolled back chunk may hold ids assigned by it and be marked as persisted
+                    AttemptResult attempt = regradeAttempt(graded);
+                    AttemptResultDto written = transactionTemplate.execute(status -> mapAndWrite(attempt));
+                    markWritten(graded, written, results);
+                } catch (RuntimeException ex) {
+                    log.error("Failed to save attempt {}", graded.attempt.getId(), ex);
+                    results[graded.index] = BulkAttemptResultDto.failed(
+                            graded.index, graded.attempt.getTest().getId(), "Attempt couldn't be saved"
+                    );
+                }
+            }
         }
+    }
 
-        return AttemptAnswer.builder()
-                .option(option)
-                .correct(option.isCorrect())
-                .build();
+    private AttemptResult regradeAttempt(GradedAttempt graded) {
+        AttemptResult attempt = graded.attempt;
+        return gradeAttempt(graded.snapshot, graded.attemptDto, attempt.getUser(), attempt.getId(), attempt.getCreatedAt());
+    }
+
+    private AttemptResultDto mapAndWrite(AttemptResult attempt) {
+        // map before writing, a queued attempt is saved by the writer thread and mustn't be read concurrently
+        AttemptResultDto result = mapAttemptResultToAttemptResultDto(attempt);
+        attemptWriter.write(attempt);
+
+        return result;
+    }
+
+    private void markWritten(GradedAttempt graded, AttemptResultDto result, BulkAttemptResultDto[] results) {
+        String testId = result.getTestId();
+
+        results[graded.index] = attemptWriter.isDeferred()
+                ? BulkAttemptResultDto.accepted(graded.index, testId, result)
+                : BulkAttemptResultDto.saved(graded.index, testId, result);
+    }
+
+    private static Cursor getCursor(AttemptResult attempt) {
+        return Cursor.of(attempt.getCreatedAt(), attempt.getId());
+    }
+
+    private static Cursor getSummaryCursor(AttemptSummary summary) {
+        return Cursor.of(summary.getSubmittedAt(), summary.getAttemptId());
     }
 
     private AttemptResultDto mapAttemptResultToAttemptResultDto(AttemptResult attemptResult) {
-        return mapper.map(attemptResult, AttemptResultDto.class);
+        return attemptMapper.toAttemptResultDto(attemptResult);
+    }
+
+    @RequiredArgsConstructor
+    private static final class GradedAttempt {
+        private final int index;
+        private final TestSnapshot snapshot;
+        private final AttemptDto attemptDto;
+        private final AttemptResult attempt;
     }
 }
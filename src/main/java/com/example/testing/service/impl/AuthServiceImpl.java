@@ -2,6 +2,7 @@ package com.example.testing.service.impl;
 
 import com.example.testing.exceptions.ResourceAlreadyExistException;
 import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.mapper.UserMapper;
 import com.example.testing.model.User;
 import com.example.testing.payload.UserDto;
 import com.example.testing.payload.auth.SignInRequestDto;
@@ -9,16 +10,21 @@ import com.example.testing.payload.auth.SignInResponseDto;
 import com.example.testing.repository.UserRepository;
 import com.example.testing.service.AuthService;
 import com.example.testing.service.JwtService;
+import com.example.testing.service.auth.TokenAuthenticationCache;
+import com.example.testing.service.auth.TokenAuthenticationCache.TokenAuthentication;
+import com.example.testing.service.auth.VerifiedToken;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -26,6 +32,7 @@ import java.util.Optional;
 @Slf4j
 @RequiredArgsConstructor
 @Service
+@Timed(value = "service.method", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Transactional
 public class AuthServiceImpl implements AuthService {
 
@@ -33,7 +40,9 @@ public class AuthServiceImpl implements AuthService {
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authManager;
-    private final ModelMapper mapper;
+    private final UserMapper userMapper;
+    private final TokenAuthenticationCache tokenAuthenticationCache;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public UserDto signUp(UserDto userDto) {
@@ -68,15 +77,27 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Authentication exchangeToken(String token) {
         log.debug("Exchange token");
 
-        String userId = jwtService.decodeToken(token);
-
-        User user = getUser(userId);
+        User user = tokenAuthenticationCache.get(token, this::authenticateToken);
         return new PreAuthenticatedAuthenticationToken(user, token, user.getAuthorities());
     }
 
+    private TokenAuthentication authenticateToken(String token) {
+        VerifiedToken verifiedToken = jwtService.verifyToken(token);
+
+        // read-write transaction runs on the primary, the replica may not have the user who has just signed up
+        User user = transactionTemplate.execute(status -> getUser(verifiedToken.getSubject()));
+        if (!user.isEnabled()) {
+            log.error("User with id '{}' is disabled", user.getId());
+            throw new IllegalStateException("User is disabled");
+        }
+
+        return TokenAuthentication.of(user, verifiedToken.getExpiresAt());
+    }
+
     private User getUser(String userId) {
         Optional<User> optionalUser = userRepository.findById(userId);
         if (optionalUser.isEmpty()) {
@@ -103,6 +124,6 @@ public class AuthServiceImpl implements AuthService {
     }
 
     private UserDto mapUserToUserDto(User user) {
-        return mapper.map(user, UserDto.class);
+        return userMapper.toUserDto(user);
     }
 }
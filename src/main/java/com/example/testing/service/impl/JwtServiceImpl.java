@@ -7,7 +7,8 @@ import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.example.testing.model.User;
 import com.example.testing.service.JwtService;
-import lombok.RequiredArgsConstructor;
+import com.example.testing.service.auth.VerifiedToken;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -17,14 +18,24 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 
 @Slf4j
-@RequiredArgsConstructor
 @Service
+@Timed(value = "service.method", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class JwtServiceImpl implements JwtService {
-    @Value("${security.jwt.secret}")
-    private String secret;
+    private final long expirationTimeMin;
 
-    @Value("${security.jwt.token-expiration-time-min}")
-    private long expirationTimeMin;
+    // algorithm and verifier are thread safe and reused for all tokens
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    public JwtServiceImpl(
+            @Value("${security.jwt.secret}") String secret,
+            @Value("${security.jwt.token-expiration-time-min}") long expirationTimeMin
+    ) {
+        this.expirationTimeMin = expirationTimeMin;
+
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).build();
+    }
 
     @Override
     public String createToken(User user) {
@@ -37,8 +48,6 @@ public class JwtServiceImpl implements JwtService {
     public String createToken(User user, long expirationTimeMin) {
         log.debug("Create jwt token for user: {}", user);
 
-        Algorithm algorithm = Algorithm.HMAC256(secret);
-
         String userId = String.valueOf(user.getId());
 
         Instant expiresAt = getExpirationTime(expirationTimeMin);
@@ -51,18 +60,20 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public String decodeToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            JWTVerifier verifier = JWT.require(algorithm).build();
+        return verifyToken(token).getSubject();
+    }
 
+    @Override
+    public VerifiedToken verifyToken(String token) {
+        try {
             DecodedJWT decodedToken = verifier.verify(token);
 
-            return decodedToken.getSubject();
+            return VerifiedToken.of(decodedToken.getSubject(), decodedToken.getExpiresAtAsInstant());
         } catch (JWTVerificationException e) {
-            log.error("Invalid JWT token: {}", token);
+            log.debug("Invalid JWT token: {}", e.getMessage());
             throw new IllegalStateException("Invalid jwt token");
         } catch (Exception e) {
-            log.error("Exception while decoding jwt token");
+            log.error("Exception while decoding jwt token", e);
             throw new IllegalStateException("Exception while decoding jwt token");
         }
     }
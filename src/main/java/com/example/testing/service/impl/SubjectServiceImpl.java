@@ -2,31 +2,42 @@ package com.example.testing.service.impl;
 
 import com.example.testing.exceptions.ForbiddenException;
 import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.mapper.SubjectMapper;
 import com.example.testing.model.Subject;
 import com.example.testing.model.User;
 import com.example.testing.model.UserRole;
+import com.example.testing.model.test.Test;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.SubjectDto;
 import com.example.testing.repository.SubjectRepository;
 import com.example.testing.repository.UserRepository;
 import com.example.testing.service.SubjectService;
+import com.example.testing.service.TestStatsService;
+import com.example.testing.service.cache.TestSnapshotCache;
+import com.example.testing.service.pagination.Cursor;
+import com.example.testing.service.pagination.Pagination;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
+@Timed(value = "service.method", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Transactional
 public class SubjectServiceImpl implements SubjectService {
     private final SubjectRepository subjectRepository;
     private final UserRepository userRepository;
-    private final ModelMapper mapper;
+    private final TestSnapshotCache testSnapshotCache;
+    private final TestStatsService testStatsService;
+    private final SubjectMapper subjectMapper;
 
     @Override
     public SubjectDto saveSubject(SubjectDto req, User user) {
@@ -81,9 +92,14 @@ public class SubjectServiceImpl implements SubjectService {
         }
 
         subjectRepository.delete(subject);
+        for (Test test : subject.getTests()) {
+            testStatsService.deleteTestStats(test.getId());
+        }
+        testSnapshotCache.invalidateBySubject(subjectId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public SubjectDto getSubjectById(String subjectId) {
         log.debug("Get subject with id {}", subjectId);
 
@@ -94,25 +110,36 @@ public class SubjectServiceImpl implements SubjectService {
     }
 
     @Override
-    public List<SubjectDto> getAllSubjects() {
-        log.debug("Get all subjects");
+    @Transactional(readOnly = true)
+    public PageDto<SubjectDto> getAllSubjects(PageRequestDto pageRequest) {
+        log.debug("Get all subjects. Page request: {}", pageRequest);
+
+        Pageable pageable = Pagination.pageable(pageRequest);
+        Slice<Subject> subjects = Pagination.cursor(pageRequest)
+                .map(cursor -> subjectRepository.findAllAfter(cursor.getCreatedAt(), cursor.getId(), pageable))
+                .orElseGet(() -> subjectRepository.findAllBy(pageable));
 
-        return subjectRepository.findAll()
-                .stream().map(this::mapSubjectToSubjectDto).collect(Collectors.toList());
+        return Pagination.toPageDto(subjects, pageRequest, this::mapSubjectToSubjectDto, SubjectServiceImpl::getCursor);
     }
 
     @Override
-    public List<SubjectDto> getSubjectsByEducatorId(String educatorId) {
-        log.debug("Get subject by educator id {}", educatorId);
+    @Transactional(readOnly = true)
+    public PageDto<SubjectDto> getSubjectsByEducatorId(String educatorId, PageRequestDto pageRequest) {
+        log.debug("Get subject by educator id {}. Page request: {}", educatorId, pageRequest);
 
         User educator = userRepository.findByIdAndRole(educatorId, UserRole.EDUCATOR)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", educatorId));
 
-        return subjectRepository.findAllByEducator(educator)
-                .stream().map(this::mapSubjectToSubjectDto).collect(Collectors.toList());
+        Pageable pageable = Pagination.pageable(pageRequest);
+        Slice<Subject> subjects = Pagination.cursor(pageRequest)
+                .map(cursor -> subjectRepository.findAllByEducatorAfter(educator, cursor.getCreatedAt(), cursor.getId(), pageable))
+                .orElseGet(() -> subjectRepository.findAllByEducator(educator, pageable));
+
+        return Pagination.toPageDto(subjects, pageRequest, this::mapSubjectToSubjectDto, SubjectServiceImpl::getCursor);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Subject getSubjectEntity(String subjectId) {
         log.debug("Get subject with given id {}", subjectId);
 
@@ -121,6 +148,7 @@ public class SubjectServiceImpl implements SubjectService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Subject getSubjectEntityAndVerifyEducator(String subjectId, User user) {
         log.debug("Get subject with given id {} and verify that user is educator of given subject", subjectId);
 
@@ -150,7 +178,11 @@ public class SubjectServiceImpl implements SubjectService {
                 .build();
     }
 
+    private static Cursor getCursor(Subject subject) {
+        return Cursor.of(subject.getCreatedAt(), subject.getId());
+    }
+
     private SubjectDto mapSubjectToSubjectDto(Subject subject) {
-        return mapper.map(subject, SubjectDto.class);
+        return subjectMapper.toSubjectDto(subject);
     }
 }
@@ -2,38 +2,57 @@ package com.example.testing.service.impl;
 
 import com.example.testing.exceptions.ForbiddenException;
 import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.mapper.TestMapper;
 import com.example.testing.model.Subject;
 import com.example.testing.model.User;
 import com.example.testing.model.test.Option;
 import com.example.testing.model.test.Question;
 import com.example.testing.model.test.Test;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.test.OptionDto;
 import com.example.testing.payload.test.QuestionDto;
 import com.example.testing.payload.test.TestDto;
 import com.example.testing.repository.TestRepository;
 import com.example.testing.service.SubjectService;
 import com.example.testing.service.TestService;
+import com.example.testing.service.TestStatsService;
+import com.example.testing.service.cache.ExamRenderer;
+import com.example.testing.service.cache.RenderedExam;
+import com.example.testing.service.cache.TestSnapshot;
+import com.example.testing.service.cache.TestSnapshotCache;
+import com.example.testing.service.pagination.Cursor;
+import com.example.testing.service.pagination.Pagination;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
+@Timed(value = "service.method", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @Transactional
 public class TestServiceImpl implements TestService {
     private static final int MIN_NUMBER_OF_OPTIONS = 2;
     private static final int MIN_NUMBER_OF_CORRECT_OPTIONS = 1;
     private final TestRepository testRepository;
     private final SubjectService subjectService;
-    private final ModelMapper mapper;
+    private final TestSnapshotCache testSnapshotCache;
+    private final TestStatsService testStatsService;
+    private final TestMapper testMapper;
+    private final ExamRenderer examRenderer;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     public TestDto saveTest(TestDto req, User user) {
@@ -51,6 +70,8 @@ public class TestServiceImpl implements TestService {
 
         // save test
         test = testRepository.save(test);
+        testStatsService.createTestStats(test.getId());
+
         return mapTestToTestDto(test);
     }
 
@@ -81,8 +102,12 @@ public class TestServiceImpl implements TestService {
         Set<Question> questions = createQuestions(req.getQuestions());
         test.setQuestions(questions);
 
-        // save updated test
+        // save updated test, stats are recreated for the new questions
         test = testRepository.save(test);
+        testStatsService.deleteTestStats(testId);
+        testStatsService.createTestStats(testId);
+        testSnapshotCache.invalidate(testId);
+
         return mapTestToTestDto(test);
     }
 
@@ -101,34 +126,78 @@ public class TestServiceImpl implements TestService {
         }
 
         testRepository.delete(test);
+        testStatsService.deleteTestStats(testId);
+        testSnapshotCache.invalidate(testId);
     }
 
     @Override
-    public TestDto getTestById(String testId) {
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TestDto getTestById(String testId, User user) {
         log.debug("Get test with id: {}", testId);
 
-        Test test = testRepository.findById(testId)
-                .orElseThrow(() -> new ResourceNotFoundException("test", "id", testId));
+        TestSnapshot snapshot = getTestSnapshot(testId);
 
-        return mapTestToTestDto(test);
+        // test contains the answer key, students get the exam instead
+        Subject subject = snapshot.getTest().getSubject();
+        if (!subject.getEducator().equals(user)) {
+            log.error("User {} is not an educator of the subject: {}", user.getId(), subject.getId());
+            throw new ForbiddenException("Not an educator of the subject: " + subject.getId());
+        }
+
+        return snapshot.getTestDto();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RenderedExam getExam(String testId) {
+        log.debug("Get exam of the test with id {}", testId);
+
+        return testSnapshotCache.getExam(getTestSnapshot(testId), examRenderer::render);
     }
 
     @Override
-    public List<TestDto> getTestsBySubjectId(String subjectId) {
-        log.debug("Get tests by subject with id: {}", subjectId);
+    @Transactional(readOnly = true)
+    public PageDto<TestDto> getTestsBySubjectId(String subjectId, User user, PageRequestDto pageRequest) {
+        log.debug("Get tests by subject with id: {}. Page request: {}", subjectId, pageRequest);
 
         Subject subject = subjectService.getSubjectEntity(subjectId);
 
-        return testRepository.findBySubject(subject)
-                .stream().map(this::mapTestToTestDto).collect(Collectors.toList());
+        // questions contain the answer key, so only the educator gets them
+        Function<Test, TestDto> mapper = user.equals(subject.getEducator())
+                ? this::mapTestToTestDto
+                : this::mapTestToTestDtoWithoutQuestions;
+
+        Pageable pageable = Pagination.pageable(pageRequest);
+        Slice<Test> tests = Pagination.cursor(pageRequest)
+                .map(cursor -> testRepository.findBySubjectAfter(subject, cursor.getCreatedAt(), cursor.getId(), pageable))
+                .orElseGet(() -> testRepository.findBySubject(subject, pageable));
+
+        return Pagination.toPageDto(tests, pageRequest, mapper, TestServiceImpl::getCursor);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Test getTestEntity(String testId) {
         return testRepository.findById(testId)
                 .orElseThrow(() -> new ResourceNotFoundException("test", "id", testId));
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public TestSnapshot getTestSnapshot(String testId) {
+        return testSnapshotCache.get(testId, this::loadTestSnapshot);
+    }
+
+    private TestSnapshot loadTestSnapshot(String testId) {
+        log.debug("Load snapshot of the test with id: {}", testId);
+
+        // read-write transaction runs on the primary, a snapshot of the lagging replica would stay cached after updates
+        return transactionTemplate.execute(status -> {
+            Test test = getTestEntity(testId);
+            return TestSnapshot.of(test, mapTestToTestDto(test));
+        });
+    }
+
     private static Test createTest(TestDto testDto, Subject subject) {
         return Test.builder()
                 .subject(subject)
@@ -177,7 +246,15 @@ public class TestServiceImpl implements TestService {
                 .build();
     }
 
+    private static Cursor getCursor(Test test) {
+        return Cursor.of(test.getCreatedAt(), test.getId());
+    }
+
     private TestDto mapTestToTestDto(Test test) {
-        return mapper.map(test, TestDto.class);
+        return testMapper.toTestDto(test);
+    }
+
+    private TestDto mapTestToTestDtoWithoutQuestions(Test test) {
+        return testMapper.toTestDtoWithoutQuestions(test);
     }
 }
@@ -0,0 +1,225 @@
+package com.example.testing.service.impl;
+
+import com.example.testing.exceptions.ForbiddenException;
+import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.model.User;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.stats.TestScoreBucket;
+import com.example.testing.payload.stats.QuestionStatsDto;
+import com.example.testing.payload.stats.ScoreBucketDto;
+import com.example.testing.payload.stats.TestStatsDto;
+import com.example.testing.repository.QuestionStatsRepository;
+import com.example.testing.repository.TestRepository;
+import com.example.testing.repository.TestScoreBucketRepository;
+import com.example.testing.repository.TestStatsRepository;
+import com.example.testing.repository.projection.QuestionStatsTotals;
+import com.example.testing.repository.projection.ScoreBucketTotals;
+import com.example.testing.repository.projection.TestStatsTotals;
+import com.example.testing.service.TestStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Service
+@Transactional
+public class TestStatsServiceImpl implements TestStatsService {
+    private final TestStatsRepository testStatsRepository;
+    private final TestScoreBucketRepository scoreBucketRepository;
+    private final QuestionStatsRepository questionStatsRepository;
+    private final TestRepository testRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int shards;
+
+    public TestStatsServiceImpl(
+            TestStatsRepository testStatsRepository,
+            TestScoreBucketRepository scoreBucketRepository,
+            QuestionStatsRepository questionStatsRepository,
+            TestRepository testRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${stats.shards:8}") int shards
+    ) {
+        this.testStatsRepository = testStatsRepository;
+        this.scoreBucketRepository = scoreBucketRepository;
+        this.questionStatsRepository = questionStatsRepository;
+        this.testRepository = testRepository;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void createTestStats(String testId) {
+        log.debug("Create stats stripes of the test {}", testId);
+
+        // question rows are selected from the join table of the test
+        testRepository.flush();
+
+        for (int shard = 0; shard < shards; shard++) {
+            testStatsRepository.insertMissingShard(testId, shard);
+            for (int bucket = 0; bucket < TestScoreBucket.BUCKETS; bucket++) {
+                scoreBucketRepository.insertMissingBucket(testId, shard, bucket);
+            }
+            questionStatsRepository.insertMissingQuestions(testId, shard);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void createMissingTestStats() {
+        List<String> testIds = testStatsRepository.findTestIdsWithMissingShards(shards);
+        if (testIds.isEmpty()) {
+            return;
+        }
+
+        log.info("Create missing stats stripes of {} tests", testIds.size());
+
+        // each test in own transaction, so a large backlog doesn't hold one long transaction
+        for (String testId : testIds) {
+            transactionTemplate.executeWithoutResult(status -> createTestStats(testId));
+        }
+    }
+
+    @Override
+    public void recordAttempt(AttemptResult attempt) {
+        String testId = attempt.getTest().getId();
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+
+        int score = attempt.getScore();
+        int bucket = TestScoreBucket.bucketOf(score, attempt.getMaxScore());
+
+        // every question of the test is graded, only the ones with answers count as answered
+        Set<Long> answered = new HashSet<>();
+        Set<Long> correct = new HashSet<>();
+        for (AttemptQuestion question : attempt.getAttemptQuestions()) {
+            if (question.getAnswers() == null || question.getAnswers().isEmpty()) {
+                continue;
+            }
+
+            answered.add(question.getQuestion().getId());
+            if (question.getMaxScore() > 0 && question.getScore().equals(question.getMaxScore())) {
+                correct.add(question.getQuestion().getId());
+            }
+        }
+
+        log.debug("Record attempt of the test {} in the stats stripe {}", testId, shard);
+
+        // stripes are created with the test, so the submission never inserts rows
+        requireUpdated(testStatsRepository.addScore(testId, shard, score, (long) score * score), testId, shard);
+        requireUpdated(scoreBucketRepository.increment(testId, shard, bucket), testId, shard);
+
+        if (answered.isEmpty()) {
+            return;
+        }
+
+        int updated = questionStatsRepository.incrementAnswered(testId, shard, answered);
+        if (updated < answered.size()) {
+            log.warn("Stats stripe {} of the test {} is missing {} questions", shard, testId, answered.size() - updated);
+        }
+
+        if (!correct.isEmpty()) {
+            questionStatsRepository.incrementCorrect(testId, shard, correct);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TestStatsDto getTestStats(String testId, User user) {
+        log.debug("Get stats of the test with id {}", testId);
+
+        User educator = testRepository.findEducatorById(testId)
+                .orElseThrow(() -> new ResourceNotFoundException("Test", "id", testId));
+
+        if (!educator.equals(user)) {
+            log.error("User {} is not the educator of the subject of the test {}", user.getId(), testId);
+            throw new ForbiddenException("Not an educator of the test subject");
+        }
+
+        TestStatsTotals totals = testStatsRepository.sumByTestId(testId);
+        long attempts = totals.getAttempts();
+
+        TestStatsDto stats = TestStatsDto.builder()
+                .testId(testId)
+                .attempts(attempts)
+                .lowestScore(totals.getLowestScore())
+                .highestScore(totals.getHighestScore())
+                .histogram(getHistogram(testId))
+                .questions(getQuestionStats(testId, attempts))
+                .build();
+
+        if (attempts > 0) {
+            double average = (double) totals.getScoreSum() / attempts;
+            double variance = (double) totals.getScoreSquaresSum() / attempts - average * average;
+
+            stats.setAverageScore(average);
+            stats.setScoreStandardDeviation(Math.sqrt(Math.max(0, variance)));
+        }
+
+        return stats;
+    }
+
+    @Override
+    public void deleteTestStats(String testId) {
+        log.debug("Delete stats of the test with id {}", testId);
+
+        testStatsRepository.deleteByTestId(testId);
+        scoreBucketRepository.deleteByTestId(testId);
+        questionStatsRepository.deleteByTestId(testId);
+    }
+
+    private void requireUpdated(int updated, String testId, int shard) {
+        if (updated == 0) {
+            log.error("Stats stripe {} of the test {} doesn't exist", shard, testId);
+            throw new IllegalStateException("Statistics of the test are missing stripe " + shard + ": " + testId);
+        }
+    }
+
+    private List<ScoreBucketDto> getHistogram(String testId) {
+        long[] attempts = new long[TestScoreBucket.BUCKETS];
+        for (ScoreBucketTotals bucket : scoreBucketRepository.sumByTestId(testId)) {
+            attempts[bucket.getBucket()] = bucket.getAttempts();
+        }
+
+        int width = 100 / TestScoreBucket.BUCKETS;
+
+        List<ScoreBucketDto> histogram = new ArrayList<>(TestScoreBucket.BUCKETS);
+        for (int bucket = 0; bucket < TestScoreBucket.BUCKETS; bucket++) {
+            histogram.add(ScoreBucketDto.builder()
+                    .fromPercent(bucket * width)
+                    .toPercent((bucket + 1) * width)
+                    .attempts(attempts[bucket])
+                    .build());
+        }
+
+        return histogram;
+    }
+
+    private List<QuestionStatsDto> getQuestionStats(String testId, long attempts) {
+        List<QuestionStatsTotals> totals = questionStatsRepository.sumByTestId(testId);
+
+        List<QuestionStatsDto> questions = new ArrayList<>(totals.size());
+        for (QuestionStatsTotals question : totals) {
+            questions.add(QuestionStatsDto.builder()
+                    .questionId(question.getQuestionId())
+                    .answered(question.getAnswered())
+                    .correct(question.getCorrect())
+                    .correctRate(attempts == 0 ? null : (double) question.getCorrect() / attempts)
+                    .build());
+        }
+
+        return questions;
+    }
+}
@@ -1,17 +1,22 @@
 package com.example.testing.service.impl;
 
+import com.example.testing.model.User;
 import com.example.testing.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.function.Supplier;
 
+@Slf4j
 @RequiredArgsConstructor
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
 
     private final String NOT_FOUND_MESSAGE = "User with username %s not found";
@@ -21,6 +26,22 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return userRepository.findByEmail(username).orElseThrow(exceptionSupplier(username));
     }
 
+    /**
+     * Called after successful sign in when the stored hash was encoded with weaker settings
+     * than the configured password encoder, e.g. lower bcrypt strength
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        log.debug("Upgrade password encoding of the user {}", userDetails.getUsername());
+
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(exceptionSupplier(userDetails.getUsername()));
+
+        user.setPassword(newPassword);
+        return userRepository.save(user);
+    }
+
     private Supplier<UsernameNotFoundException> exceptionSupplier(String username) {
         return () -> new UsernameNotFoundException(String.format(NOT_FOUND_MESSAGE, username));
     }
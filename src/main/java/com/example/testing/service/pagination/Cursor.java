@@ -0,0 +1,66 @@
+package com.example.testing.service.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last returned element in the list ordered by creation time and id
+ */
+@Slf4j
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class Cursor {
+    private static final char SEPARATOR = '|';
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    private Cursor(LocalDateTime createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static Cursor of(LocalDateTime createdAt, String id) {
+        return new Cursor(createdAt, id);
+    }
+
+    /**
+     * Decode cursor received from the client
+     *
+     * @param value encoded cursor
+     * @return decoded cursor
+     */
+    public static Cursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+
+            return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            log.error("Invalid cursor: {}", value);
+            throw new IllegalStateException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Encode cursor to the opaque url safe string
+     *
+     * @return encoded cursor
+     */
+    public String encode() {
+        String value = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
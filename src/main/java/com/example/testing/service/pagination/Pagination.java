@@ -0,0 +1,95 @@
+package com.example.testing.service.pagination;
+
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Translates page requests to repository slices and slices to page dtos.
+ * Lists are ordered from newest to oldest by creation time and id, which is the order of the keyset cursor
+ */
+@Slf4j
+public final class Pagination {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final Sort SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private Pagination() {
+    }
+
+    /**
+     * Get pageable for the given page request. Cursor requests always start from the first page
+     *
+     * @param pageRequest page request
+     * @return pageable
+     */
+    public static Pageable pageable(PageRequestDto pageRequest) {
+        if (pageRequest.getPage() != null && pageRequest.getCursor() != null) {
+            log.error("Both page and cursor are specified");
+            throw new IllegalStateException("Specify either page or cursor");
+        }
+
+        int page = pageRequest.getPage() == null ? 0 : pageRequest.getPage();
+        return PageRequest.of(page, limit(pageRequest), SORT);
+    }
+
+    /**
+     * Get decoded cursor of the page request
+     *
+     * @param pageRequest page request
+     * @return decoded cursor or empty optional if request isn't keyset based
+     */
+    public static Optional<Cursor> cursor(PageRequestDto pageRequest) {
+        return Optional.ofNullable(pageRequest.getCursor()).map(Cursor::decode);
+    }
+
+    /**
+     * Map slice to page dto
+     *
+     * @param slice       fetched slice
+     * @param pageRequest page request the slice was fetched for
+     * @param mapper      maps elements to dtos
+     * @param cursor      gets cursor of the element
+     * @return page dto with the cursor of the next page if there is one
+     */
+    public static <E, D> PageDto<D> toPageDto(
+            Slice<E> slice, PageRequestDto pageRequest, Function<E, D> mapper, Function<E, Cursor> cursor
+    ) {
+        List<E> content = slice.getContent();
+
+        List<D> items = new ArrayList<>(content.size());
+        for (E element : content) {
+            items.add(mapper.apply(element));
+        }
+
+        String nextCursor = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            nextCursor = cursor.apply(content.get(content.size() - 1)).encode();
+        }
+
+        return PageDto.<D>builder()
+                .items(items)
+                .page(pageRequest.getCursor() == null ? slice.getNumber() : null)
+                .limit(slice.getSize())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static int limit(PageRequestDto pageRequest) {
+        if (pageRequest.getLimit() == null) {
+            return DEFAULT_LIMIT;
+        }
+
+        return Math.max(1, Math.min(pageRequest.getLimit(), MAX_LIMIT));
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.testing.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trace of the request handled by the current thread: spans of the controller, service and repository calls
+ * and number and duration of the executed sql statements
+ */
+public final class RequestTrace {
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    // spans above the limit are counted, but not recorded
+    private static final int MAX_SPANS = 100;
+
+    private final String traceId;
+    private final long startNanos;
+
+    private int sqlCount;
+    private long sqlNanos;
+
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+    private int depth;
+
+    private RequestTrace(String traceId) {
+        this.traceId = traceId;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Start trace on the current thread
+     *
+     * @param traceId id of the trace
+     * @return started trace
+     */
+    public static RequestTrace start(String traceId) {
+        RequestTrace trace = new RequestTrace(traceId);
+        CURRENT.set(trace);
+
+        return trace;
+    }
+
+    /**
+     * Get trace of the current thread
+     *
+     * @return current trace or null if thread doesn't handle traced request
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Finish trace of the current thread
+     */
+    public void finish() {
+        CURRENT.remove();
+    }
+
+    public void recordSql(long nanos) {
+        sqlCount++;
+        sqlNanos += nanos;
+    }
+
+    /**
+     * Enter span, spans are listed in the order they were entered
+     *
+     * @param layer layer of the call
+     * @param name  called method
+     * @return entered span
+     */
+    public Span enter(String layer, String name) {
+        Span span = new Span(layer, name, depth++, sqlCount, System.nanoTime());
+
+        if (spans.size() < MAX_SPANS) {
+            spans.add(span);
+        } else {
+            droppedSpans++;
+        }
+
+        return span;
+    }
+
+    public void exit(Span span) {
+        depth--;
+
+        span.durationNanos = System.nanoTime() - span.startNanos;
+        span.sqlCount = sqlCount - span.sqlCount;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public int getSqlCount() {
+        return sqlCount;
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    public List<Span> getSpans() {
+        return spans;
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    public static final class Span {
+        private final String layer;
+        private final String name;
+        private final int depth;
+        private final long startNanos;
+
+        // sql count when the span was entered, replaced by the number of statements of the span on exit
+        private int sqlCount;
+        private long durationNanos;
+
+        private Span(String layer, String name, int depth, int sqlCount, long startNanos) {
+            this.layer = layer;
+            this.name = name;
+            this.depth = depth;
+            this.sqlCount = sqlCount;
+            this.startNanos = startNanos;
+        }
+
+        public String getLayer() {
+            return layer;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getSqlCount() {
+            return sqlCount;
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        @Override
+        public String toString() {
+            return depth + ":" + layer + ":" + name + " " + (durationNanos / 1_000) / 1000.0 + "ms sql=" + sqlCount;
+        }
+    }
+}
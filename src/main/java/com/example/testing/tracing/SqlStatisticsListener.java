@@ -0,0 +1,39 @@
+package com.example.testing.tracing;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds statements executed by the hibernate session to the trace of the current request.
+ * Instantiated by hibernate for every session, see hibernate.session.events.auto
+ */
+public class SqlStatisticsListener extends BaseSessionEventListener {
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace != null) {
+            trace.recordSql(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.testing.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records controller, service and repository calls of the traced requests as spans
+ */
+@Aspect
+@Component
+public class TracingAspect {
+    // repositories are proxies of their interfaces, names are resolved once per proxy class
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller");
+    }
+
+    @Around("within(@org.springframework.stereotype.Service *)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service");
+    }
+
+    @Around("execution(* com.example.testing.repository..*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository");
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return joinPoint.proceed();
+        }
+
+        RequestTrace.Span span = trace.enter(layer, typeName(joinPoint, layer) + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            trace.exit(span);
+        }
+    }
+
+    private String typeName(ProceedingJoinPoint joinPoint, String layer) {
+        if (!"repository".equals(layer)) {
+            return joinPoint.getTarget().getClass().getSimpleName();
+        }
+
+        return repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(), type -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : type.getSimpleName();
+        });
+    }
+}
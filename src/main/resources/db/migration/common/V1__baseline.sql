@@ -0,0 +1,127 @@
+-- Schema created by ddl-auto of the last version before migrations.
+-- Existing databases created by ddl-auto are baselined at this version and don't run it,
+-- so it must stay exactly that schema: later changes go to the following migrations.
+
+create table users (
+    id varchar(255) not null,
+    first_name varchar(255),
+    last_name varchar(255),
+    email varchar(255),
+    password varchar(255),
+    role varchar(255),
+    enabled boolean not null,
+    created_at timestamp,
+    updated_at timestamp,
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table subjects (
+    id varchar(255) not null,
+    educator_id varchar(255),
+    name varchar(255),
+    description varchar(1024),
+    created_at timestamp,
+    updated_at timestamp,
+    constraint pk_subjects primary key (id),
+    constraint fk_subjects_educator foreign key (educator_id) references users (id)
+);
+
+create table tests (
+    id varchar(255) not null,
+    subject_id varchar(255),
+    name varchar(255),
+    created_at timestamp,
+    updated_at timestamp,
+    constraint pk_tests primary key (id),
+    constraint fk_tests_subject foreign key (subject_id) references subjects (id)
+);
+
+create index idx_tests_subject on tests (subject_id);
+
+create table questions (
+    id bigint generated by default as identity,
+    question varchar(512),
+    constraint pk_questions primary key (id)
+);
+
+create table options (
+    id bigint generated by default as identity,
+    option varchar(512),
+    correct boolean not null,
+    constraint pk_options primary key (id)
+);
+
+create table tests_questions (
+    test_id varchar(255) not null,
+    questions_id bigint not null,
+    constraint pk_tests_questions primary key (test_id, questions_id),
+    constraint uk_tests_questions_questions unique (questions_id),
+    constraint fk_tests_questions_test foreign key (test_id) references tests (id),
+    constraint fk_tests_questions_questions foreign key (questions_id) references questions (id)
+);
+
+create table questions_options (
+    question_id bigint not null,
+    options_id bigint not null,
+    constraint pk_questions_options primary key (question_id, options_id),
+    constraint uk_questions_options_options unique (options_id),
+    constraint fk_questions_options_question foreign key (question_id) references questions (id),
+    constraint fk_questions_options_options foreign key (options_id) references options (id)
+);
+
+create table attempt (
+    id varchar(255) not null,
+    user_id varchar(255),
+    test_id varchar(255),
+    score integer,
+    max_score integer,
+    created_at timestamp,
+    constraint pk_attempt primary key (id),
+    constraint fk_attempt_user foreign key (user_id) references users (id),
+    constraint fk_attempt_test foreign key (test_id) references tests (id)
+);
+
+create table tests_attempts (
+    test_id varchar(255) not null,
+    attempts_id varchar(255) not null,
+    constraint pk_tests_attempts primary key (test_id, attempts_id),
+    constraint uk_tests_attempts_attempts unique (attempts_id),
+    constraint fk_tests_attempts_test foreign key (test_id) references tests (id),
+    constraint fk_tests_attempts_attempts foreign key (attempts_id) references attempt (id)
+);
+
+create table attempt_questions (
+    id bigint generated by default as identity,
+    question_id bigint,
+    score integer,
+    max_score integer,
+    constraint pk_attempt_questions primary key (id),
+    constraint fk_attempt_questions_question foreign key (question_id) references questions (id)
+);
+
+create table attempt_attempt_questions (
+    attempt_result_id varchar(255) not null,
+    attempt_questions_id bigint not null,
+    constraint pk_attempt_attempt_questions primary key (attempt_result_id, attempt_questions_id),
+    constraint uk_attempt_attempt_questions_attempt_questions unique (attempt_questions_id),
+    constraint fk_attempt_attempt_questions_attempt foreign key (attempt_result_id) references attempt (id),
+    constraint fk_attempt_attempt_questions_attempt_questions foreign key (attempt_questions_id) references attempt_questions (id)
+);
+
+create table attempt_answers (
+    id bigint generated by default as identity,
+    option_id bigint,
+    correct boolean not null,
+    constraint pk_attempt_answers primary key (id),
+    constraint fk_attempt_answers_option foreign key (option_id) references options (id)
+);
+
+create table attempt_questions_answers (
+    attempt_question_id bigint not null,
+    answers_id bigint not null,
+    constraint pk_attempt_questions_answers primary key (attempt_question_id, answers_id),
+    constraint uk_attempt_questions_answers_answers unique (answers_id),
+    constraint fk_attempt_questions_answers_attempt_question foreign key (attempt_question_id) references attempt_questions (id),
+    constraint fk_attempt_questions_answers_answers foreign key (answers_id) references attempt_answers (id)
+);
@@ -0,0 +1,30 @@
+-- Striped per test statistics.
+-- Databases created by ddl-auto of the versions before migrations may already have them.
+
+create table if not exists test_stats (
+    test_id varchar(255) not null,
+    shard integer not null,
+    attempts bigint not null,
+    score_sum bigint not null,
+    score_squares_sum bigint not null,
+    lowest_score integer,
+    highest_score integer,
+    constraint pk_test_stats primary key (test_id, shard)
+);
+
+create table if not exists test_score_buckets (
+    test_id varchar(255) not null,
+    shard integer not null,
+    bucket integer not null,
+    attempts bigint not null,
+    constraint pk_test_score_buckets primary key (test_id, shard, bucket)
+);
+
+create table if not exists question_stats (
+    test_id varchar(255) not null,
+    shard integer not null,
+    question_id bigint not null,
+    answered bigint not null,
+    correct bigint not null,
+    constraint pk_question_stats primary key (test_id, shard, question_id)
+);
@@ -0,0 +1,14 @@
+-- Moves ids of options, questions, attempt questions and attempt answers from identity columns to pooled sequences.
+-- Each sequence continues after the largest existing id and allocates blocks of 50 ids.
+
+create sequence if not exists options_seq start with 1 increment by 50;
+alter sequence options_seq restart with (select coalesce(max(id), 0) + 1 from options);
+
+create sequence if not exists questions_seq start with 1 increment by 50;
+alter sequence questions_seq restart with (select coalesce(max(id), 0) + 1 from questions);
+
+create sequence if not exists attempt_questions_seq start with 1 increment by 50;
+alter sequence attempt_questions_seq restart with (select coalesce(max(id), 0) + 1 from attempt_questions);
+
+create sequence if not exists attempt_answers_seq start with 1 increment by 50;
+alter sequence attempt_answers_seq restart with (select coalesce(max(id), 0) + 1 from attempt_answers);
@@ -0,0 +1,5 @@
+create index if not exists idx_subjects_educator_created on subjects (educator_id, created_at, id);
+create index if not exists idx_subjects_created on subjects (created_at, id);
+
+create index if not exists idx_attempt_user_created on attempt (user_id, created_at, id);
+create index if not exists idx_attempt_test_created on attempt (test_id, created_at, id);
@@ -0,0 +1,15 @@
+-- Moves ids of options, questions, attempt questions and attempt answers from identity columns to pooled sequences.
+-- Each sequence continues after the largest existing id and allocates blocks of 50 ids.
+-- Identity defaults stay on the columns, ids are always assigned by the application.
+
+create sequence if not exists options_seq start with 1 increment by 50;
+select setval('options_seq', coalesce((select max(id) from options), 0) + 1, false);
+
+create sequence if not exists questions_seq start with 1 increment by 50;
+select setval('questions_seq', coalesce((select max(id) from questions), 0) + 1, false);
+
+create sequence if not exists attempt_questions_seq start with 1 increment by 50;
+select setval('attempt_questions_seq', coalesce((select max(id) from attempt_questions), 0) + 1, false);
+
+create sequence if not exists attempt_answers_seq start with 1 increment by 50;
+select setval('attempt_answers_seq', coalesce((select max(id) from attempt_answers), 0) + 1, false);
@@ -0,0 +1,9 @@
+-- Built without locking writes to the tables, so the migration can run while the previous version serves requests.
+-- Concurrent builds can't run in a transaction, so this migration must contain only concurrent statements.
+-- A failed build leaves an invalid index behind: drop it before repairing and rerunning the migration.
+
+create index concurrently if not exists idx_subjects_educator_created on subjects (educator_id, created_at, id);
+create index concurrently if not exists idx_subjects_created on subjects (created_at, id);
+
+create index concurrently if not exists idx_attempt_user_created on attempt (user_id, created_at, id);
+create index concurrently if not exists idx_attempt_test_created on attempt (test_id, created_at, id);
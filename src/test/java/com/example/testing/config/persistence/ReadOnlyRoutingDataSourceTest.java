@@ -0,0 +1,96 @@
+package com.example.testing.config.persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadOnlyRoutingDataSourceTest {
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+
+    private DataSource dataSource;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        ReadOnlyRoutingDataSource routingDataSource = new ReadOnlyRoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadOnlyRoutingDataSource.Route.PRIMARY, primary,
+                ReadOnlyRoutingDataSource.Route.REPLICA, replica
+        ));
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+
+        dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // proxy reads default connection properties on creation
+        clearInvocations(primary, replica);
+    }
+
+    @Test
+    void whenExecute_givenReadOnlyTransaction_thenUseReplica() throws SQLException {
+        // given
+        transactionTemplate.setReadOnly(true);
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> createStatement());
+
+        // then
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+        verify(replicaConnection).setReadOnly(true);
+    }
+
+    @Test
+    void whenExecute_givenReadWriteTransaction_thenUsePrimary() throws SQLException {
+        // when
+        transactionTemplate.executeWithoutResult(status -> createStatement());
+
+        // then
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+        verify(primaryConnection).commit();
+    }
+
+    @Test
+    void whenGetConnection_givenNoTransaction_thenUsePrimary() throws SQLException {
+        // when
+        dataSource.getConnection().createStatement();
+
+        // then
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    private void createStatement() {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
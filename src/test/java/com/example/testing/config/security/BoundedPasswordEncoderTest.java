@@ -0,0 +1,100 @@
+package com.example.testing.config.security;
+
+import com.example.testing.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedPasswordEncoderTest {
+    private BoundedPasswordEncoder encoder;
+    private ExecutorService callers;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.close();
+        }
+        if (callers != null) {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenEncode_givenPoolIsIdle_thenDelegateHashing() {
+        // given
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 5000);
+
+        // when
+        String hash = encoder.encode("password");
+
+        // then
+        assertThat(encoder.matches("password", hash), is(true));
+        assertThat(encoder.matches("wrong", hash), is(false));
+    }
+
+    @Test
+    void whenUpgradeEncoding_givenWeakerHash_thenReturnTrue() {
+        // given
+        String weakHash = new BCryptPasswordEncoder(4).encode("password");
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, 5000);
+
+        // when
+        boolean res = encoder.upgradeEncoding(weakHash);
+
+        // then
+        assertThat(res, is(true));
+    }
+
+    @Test
+    void whenEncode_givenQueueIsFull_thenThrowException() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, 5000);
+
+        callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> encoder.encode("first"));
+        started.await(5, TimeUnit.SECONDS);
+        callers.submit(() -> encoder.encode("second"));
+
+        // wait until the second request is queued
+        while (encoder.getQueueSize() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // when
+        // then
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("third"));
+        release.countDown();
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+}
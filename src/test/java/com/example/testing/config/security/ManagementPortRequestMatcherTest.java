@@ -0,0 +1,64 @@
+package com.example.testing.config.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ManagementPortRequestMatcherTest {
+
+    @Test
+    void whenMatches_givenRequestOnStartedManagementPort_thenReturnTrue() {
+        // given
+        ManagementPortRequestMatcher matcher = new ManagementPortRequestMatcher();
+        matcher.onApplicationEvent(buildEvent("management", 54321));
+
+        // when
+        boolean management = matcher.matches(buildRequest(54321));
+        boolean api = matcher.matches(buildRequest(8080));
+
+        // then
+        assertThat(management, is(true));
+        assertThat(api, is(false));
+    }
+
+    @Test
+    void whenMatches_givenOnlyMainServerIsStarted_thenReturnFalse() {
+        // given
+        ManagementPortRequestMatcher matcher = new ManagementPortRequestMatcher();
+        matcher.onApplicationEvent(buildEvent(null, 8080));
+
+        // when
+        boolean res = matcher.matches(buildRequest(8080));
+
+        // then
+        assertThat(res, is(false));
+    }
+
+    private static WebServerInitializedEvent buildEvent(String namespace, int port) {
+        WebServer webServer = mock(WebServer.class);
+        when(webServer.getPort()).thenReturn(port);
+
+        WebServerApplicationContext context = mock(WebServerApplicationContext.class);
+        when(context.getServerNamespace()).thenReturn(namespace);
+
+        WebServerInitializedEvent event = mock(WebServerInitializedEvent.class);
+        when(event.getApplicationContext()).thenReturn(context);
+        when(event.getWebServer()).thenReturn(webServer);
+
+        return event;
+    }
+
+    private static MockHttpServletRequest buildRequest(int localPort) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setLocalPort(localPort);
+
+        return request;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.testing.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class AcceptEncodingTest {
+
+    @Test
+    void whenAcceptsGzip_givenGzipIsListed_thenReturnTrue() {
+        // when
+        boolean single = AcceptEncoding.acceptsGzip("gzip");
+        boolean list = AcceptEncoding.acceptsGzip("br, GZIP;q=0.8 , deflate");
+        boolean quality = AcceptEncoding.acceptsGzip("gzip ; q = 0.001");
+
+        // then
+        assertThat(single, is(true));
+        assertThat(list, is(true));
+        assertThat(quality, is(true));
+    }
+
+    @Test
+    void whenAcceptsGzip_givenGzipIsRefused_thenReturnFalse() {
+        // when
+        boolean zero = AcceptEncoding.acceptsGzip("gzip;q=0");
+        boolean zeroWithFraction = AcceptEncoding.acceptsGzip("br, gzip;q=0.000");
+        boolean refusedOverWildcard = AcceptEncoding.acceptsGzip("*, gzip;q=0");
+
+        // then
+        assertThat(zero, is(false));
+        assertThat(zeroWithFraction, is(false));
+        assertThat(refusedOverWildcard, is(false));
+    }
+
+    @Test
+    void whenAcceptsGzip_givenOnlyWildcard_thenReturnWhetherWildcardIsAccepted() {
+        // when
+        boolean accepted = AcceptEncoding.acceptsGzip("br, *;q=0.5");
+        boolean refused = AcceptEncoding.acceptsGzip("*;q=0");
+        boolean gzipOverRefusedWildcard = AcceptEncoding.acceptsGzip("*;q=0, gzip");
+
+        // then
+        assertThat(accepted, is(true));
+        assertThat(refused, is(false));
+        assertThat(gzipOverRefusedWildcard, is(true));
+    }
+
+    @Test
+    void whenAcceptsGzip_givenGzipIsNotListed_thenReturnFalse() {
+        // when
+        boolean missing = AcceptEncoding.acceptsGzip(null);
+        boolean empty = AcceptEncoding.acceptsGzip("");
+        boolean other = AcceptEncoding.acceptsGzip("br, x-gzip, gzipped");
+
+        // then
+        assertThat(missing, is(false));
+        assertThat(empty, is(false));
+        assertThat(other, is(false));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.testing.diagnostics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class IndexAdvisorTest {
+
+    @Test
+    void whenJpqlPredicateProperties_givenKeysetQuery_thenReturnRootPropertiesInOrder() {
+        // given
+        String jpql = "select a from AttemptResult a where a.user = :user " +
+                "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id))";
+
+        // when
+        List<String> res = IndexAdvisor.jpqlPredicateProperties(jpql);
+
+        // then
+        assertThat(res, contains("user", "createdAt", "id"));
+    }
+
+    @Test
+    void whenJpqlEqualityProperties_givenKeysetQuery_thenReturnEqualityPropertiesInOrder() {
+        // given
+        String jpql = "select a from AttemptResult a where a.user = :user " +
+                "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id))";
+
+        // when
+        List<String> res = IndexAdvisor.jpqlEqualityProperties(jpql);
+
+        // then
+        assertThat(res, contains("user", "createdAt"));
+    }
+
+    @Test
+    void whenJpqlPredicateProperties_givenPredicateOnJoinedEntity_thenIgnoreIt() {
+        // given
+        String jpql = "select a.id as attemptId from AttemptResult a join a.test t where t.name = :name and a.score > 0";
+
+        // when
+        List<String> res = IndexAdvisor.jpqlPredicateProperties(jpql);
+
+        // then
+        assertThat(res, contains("score"));
+    }
+
+    @Test
+    void whenJpqlPredicateProperties_givenUpdateQuery_thenReturnFilteredProperties() {
+        // given
+        String jpql = "update TestStatsShard s set s.attempts = s.attempts + 1 where s.testId = :testId and s.shard = :shard";
+
+        // when
+        List<String> res = IndexAdvisor.jpqlPredicateProperties(jpql);
+
+        // then
+        assertThat(res, contains("testId", "shard"));
+    }
+
+    @Test
+    void whenJpqlPredicateProperties_givenNoWhereClause_thenReturnEmptyList() {
+        // when
+        List<String> res = IndexAdvisor.jpqlPredicateProperties("select s from Subject s");
+
+        // then
+        assertThat(res, is(empty()));
+    }
+
+    @Test
+    void whenIsCovered_givenIndexStartsWithFilteredColumn_thenReturnTrue() {
+        // given
+        List<List<String>> indexes = List.of(List.of("ID"), List.of("USER_ID", "CREATED_AT", "ID"));
+
+        // when
+        boolean res = IndexAdvisor.isCovered("user_id", indexes);
+
+        // then
+        assertThat(res, is(true));
+    }
+
+    @Test
+    void whenIsCovered_givenFilteredColumnIsNotLeading_thenReturnFalse() {
+        // given
+        List<List<String>> indexes = List.of(List.of("id"), List.of("user_id", "created_at"));
+
+        // when
+        boolean res = IndexAdvisor.isCovered("created_at", indexes);
+
+        // then
+        assertThat(res, is(false));
+    }
+
+    @Test
+    void whenIsCovered_givenKeysetQueryWithoutIndexOnLeadingEqualityColumn_thenReturnFalse() {
+        // given
+        String jpql = "select a from AttemptResult a where a.test = :test " +
+                "and (a.createdAt < :createdAt or (a.createdAt = :createdAt and a.id < :id))";
+        List<List<String>> indexes = List.of(List.of("id"), List.of("user_id", "created_at", "id"));
+
+        // when
+        String leading = IndexAdvisor.jpqlEqualityProperties(jpql).get(0);
+        boolean res = IndexAdvisor.isCovered(leading + "_id", indexes);
+
+        // then
+        assertThat(leading, is("test"));
+        assertThat(res, is(false));
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.testing.filters;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ConcurrencyLimitFilterTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+
+        filter = new ConcurrencyLimitFilter(1, 10, new ObjectMapper());
+        filter.bindTo(meterRegistry);
+    }
+
+    @Test
+    void whenFilter_givenFreePermit_thenPassRequestThroughAndReleasePermit() throws Exception {
+        // given
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/tests");
+        MockHttpServletResponse res = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // when
+        filter.doFilter(req, res, chain);
+
+        // then
+        assertThat(chain.getRequest(), is(req));
+        assertThat(filter.getActiveCount(), is(0));
+    }
+
+    @Test
+    void whenFilter_givenAsyncRequest_thenHoldPermitUntilAsyncProcessingCompletes() throws Exception {
+        // given
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/tests/1234/attempts/export");
+        req.setAsyncSupported(true);
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        // controller returns a streamed body, which is written after the filter chain returns
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.startAsync();
+            }
+        });
+
+        // when
+        filter.doFilter(req, res, chain);
+
+        // then
+        assertThat(filter.getActiveCount(), is(1));
+
+        // when
+        ((MockAsyncContext) req.getAsyncContext()).complete();
+
+        // then
+        assertThat(filter.getActiveCount(), is(0));
+    }
+
+    @Test
+    void whenFilter_givenNoFreePermit_thenRespondWithServiceUnavailable() throws Exception {
+        // given
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/tests");
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        MockHttpServletResponse nestedRes = new MockHttpServletResponse();
+        MockFilterChain nestedChain = new MockFilterChain();
+
+        // request in progress tries to get the second permit
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/api/tests"), nestedRes, nestedChain);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        // when
+        filter.doFilter(req, res, chain);
+
+        // then
+        assertThat(res.getStatus(), is(200));
+        assertThat(nestedChain.getRequest(), nullValue());
+        assertThat(nestedRes.getStatus(), is(503));
+        assertThat(nestedRes.getContentAsString(), containsString("Too many requests"));
+        assertThat(meterRegistry.get("http.server.requests.concurrency.rejected").counter().count(), is(1.0));
+        assertThat(filter.getActiveCount(), is(0));
+    }
+
+    @Test
+    void whenFilter_givenActuatorRoute_thenSkipLimit() throws Exception {
+        // given
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/tests");
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        MockHttpServletResponse nestedRes = new MockHttpServletResponse();
+        MockFilterChain nestedChain = new MockFilterChain();
+
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                try {
+                    filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), nestedRes, nestedChain);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        // when
+        filter.doFilter(req, res, chain);
+
+        // then
+        assertThat(nestedChain.getRequest(), notNullValue());
+        assertThat(nestedRes.getStatus(), is(200));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.testing.filters;
+
+import com.example.testing.tracing.RequestTrace;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RequestTracingFilterTest {
+    RequestTracingFilter filter = new RequestTracingFilter(20, 500);
+
+    @Test
+    void whenFilter_givenNoTraceHeader_thenGenerateTraceIdAndClearItAfterRequest() throws Exception {
+        // given
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/tests/1234");
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        AtomicReference<String> tracedId = new AtomicReference<>();
+        AtomicReference<String> loggedId = new AtomicReference<>();
+
+        // when
+        filter.doFilter(req, res, (request, response) -> {
+            tracedId.set(RequestTrace.current().getTraceId());
+            loggedId.set(MDC.get(RequestTracingFilter.TRACE_MDC_KEY));
+        });
+
+        // then
+        String traceId = res.getHeader(RequestTracingFilter.TRACE_HEADER);
+        assertThat(traceId, is(not(emptyOrNullString())));
+        assertThat(tracedId.get(), is(traceId));
+        assertThat(loggedId.get(), is(traceId));
+
+        assertThat(RequestTrace.current(), nullValue());
+        assertThat(MDC.get(RequestTracingFilter.TRACE_MDC_KEY), nullValue());
+    }
+
+    @Test
+    void whenFilter_givenTraceHeader_thenPropagateTraceId() throws Exception {
+        // given
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/tests/1234");
+        req.addHeader(RequestTracingFilter.TRACE_HEADER, "caller-trace-1");
+
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(req, res, (request, response) -> {
+        });
+
+        // then
+        assertThat(res.getHeader(RequestTracingFilter.TRACE_HEADER), is("caller-trace-1"));
+    }
+
+    @Test
+    void whenFilter_givenMalformedTraceHeader_thenGenerateTraceId() throws Exception {
+        // given
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/tests/1234");
+        req.addHeader(RequestTracingFilter.TRACE_HEADER, "bad\nid");
+
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        // when
+        filter.doFilter(req, res, (request, response) -> {
+        });
+
+        // then
+        assertThat(res.getHeader(RequestTracingFilter.TRACE_HEADER), is(not("bad\nid")));
+    }
+
+    @Test
+    void whenFilter_givenNestedSpans_thenCountSqlStatementsPerSpan() throws Exception {
+        // given
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/tests/1234");
+        MockHttpServletResponse res = new MockHttpServletResponse();
+
+        AtomicReference<RequestTrace> traced = new AtomicReference<>();
+
+        // when
+        filter.doFilter(req, res, (request, response) -> {
+            RequestTrace trace = RequestTrace.current();
+            traced.set(trace);
+
+            RequestTrace.Span service = trace.enter("service", "TestServiceImpl.getTestById");
+            RequestTrace.Span repository = trace.enter("repository", "TestRepository.findById");
+            trace.recordSql(1_000_000);
+            trace.exit(repository);
+            trace.recordSql(1_000_000);
+            trace.exit(service);
+        });
+
+        // then
+        RequestTrace trace = traced.get();
+        assertThat(trace.getSqlCount(), is(2));
+        assertThat(trace.getSqlNanos(), is(2_000_000L));
+        assertThat(trace.getSpans(), hasSize(2));
+        assertThat(trace.getSpans().get(0).getSqlCount(), is(2));
+        assertThat(trace.getSpans().get(1).getSqlCount(), is(1));
+        assertThat(trace.getSpans().get(1).getDepth(), is(1));
+    }
+}
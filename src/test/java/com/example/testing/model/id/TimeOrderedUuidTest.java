@@ -0,0 +1,49 @@
+package com.example.testing.model.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void whenCreate_thenReturnVersion7Uuid() {
+        // given
+        long timestamp = 1677672000000L;
+
+        // when
+        UUID res = TimeOrderedUuid.create(timestamp);
+
+        // then
+        assertThat(res.version(), is(7));
+        assertThat(res.variant(), is(2));
+        assertThat(res.getMostSignificantBits() >>> 16, is(timestamp));
+    }
+
+    @Test
+    void whenCreate_givenLaterTimestamp_thenIdSortsAfter() {
+        // given
+        long timestamp = 1677672000000L;
+
+        // when
+        String earlier = TimeOrderedUuid.create(timestamp).toString();
+        String later = TimeOrderedUuid.create(timestamp + 1).toString();
+
+        // then
+        assertThat(later, greaterThan(earlier));
+    }
+
+    @Test
+    void whenGenerate_thenReturnUniqueIds() {
+        // when
+        String first = TimeOrderedUuid.generate();
+        String second = TimeOrderedUuid.generate();
+
+        // then
+        assertThat(first, not(second));
+        assertThat(UUID.fromString(first).version(), is(7));
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.testing.repository;
+
+import com.example.testing.model.Subject;
+import com.example.testing.model.User;
+import com.example.testing.model.UserRole;
+import com.example.testing.model.attempt.AttemptAnswer;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.test.Option;
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import com.example.testing.repository.projection.AttemptSummary;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Verifies that loading a whole test or attempt takes the same number of queries regardless of its size
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class FetchPlanTest {
+    private static final long MAX_QUERIES = 3;
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    TestRepository testRepository;
+    @Autowired
+    AttemptResultRepository attemptRepository;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenFindTestById_thenLoadQuestionsAndOptionsInConstantNumberOfQueries() {
+        // given
+        Test small = persistTest(2, 2);
+        Test large = persistTest(20, 4);
+
+        // when
+        long smallQueries = countQueriesToLoadTest(small.getId());
+        long largeQueries = countQueriesToLoadTest(large.getId());
+
+        // then
+        assertThat(smallQueries, is(lessThanOrEqualTo(MAX_QUERIES)));
+        assertThat(largeQueries, is(smallQueries));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenFindAttemptById_thenLoadAttemptQuestionsAndAnswersInConstantNumberOfQueries() {
+        // given
+        AttemptResult small = persistAttempt(persistTest(2, 2));
+        AttemptResult large = persistAttempt(persistTest(20, 4));
+
+        // when
+        long smallQueries = countQueriesToLoadAttempt(small.getId());
+        long largeQueries = countQueriesToLoadAttempt(large.getId());
+
+        // then
+        assertThat(smallQueries, is(lessThanOrEqualTo(MAX_QUERIES)));
+        assertThat(largeQueries, is(smallQueries));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenFindSummariesByUser_thenLoadPageInSingleQueryWithoutQuestions() {
+        // given
+        AttemptResult attempt = persistAttempt(persistTest(20, 4));
+        resetPersistenceContext();
+
+        // when
+        Slice<AttemptSummary> summaries = attemptRepository.findSummariesByUser(
+                attempt.getUser(), PageRequest.of(0, 10, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+        );
+
+        // then
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+        assertThat(summaries.getContent(), hasSize(1));
+        assertThat(summaries.getContent().get(0).getAttemptId(), is(attempt.getId()));
+        assertThat(summaries.getContent().get(0).getTestName(), is("Test"));
+    }
+
+    private long countQueriesToLoadTest(String testId) {
+        resetPersistenceContext();
+
+        Test test = testRepository.findById(testId).orElseThrow();
+
+        // walk the graph the same way the mapper does
+        int options = 0;
+        for (Question question : test.getQuestions()) {
+            options += question.getOptions().size();
+        }
+        assertThat(options, is(greaterThan(0)));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long countQueriesToLoadAttempt(String attemptId) {
+        resetPersistenceContext();
+
+        AttemptResult attempt = attemptRepository.findById(attemptId).orElseThrow();
+
+        // walk the graph the same way the mapper does
+        int options = 0;
+        for (AttemptQuestion attemptQuestion : attempt.getAttemptQuestions()) {
+            options += attemptQuestion.getQuestion().getOptions().size();
+            for (AttemptAnswer answer : attemptQuestion.getAnswers()) {
+                options += answer.getOption().getOption().length();
+            }
+        }
+        assertThat(options, is(greaterThan(0)));
+        assertThat(attempt.getTest().getSubject().getEducator(), is(notNullValue()));
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void resetPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private Test persistTest(int numberOfQuestions, int numberOfOptions) {
+        User educator = entityManager.persist(buildUser(UserRole.EDUCATOR));
+        Subject subject = entityManager.persist(Subject.builder().educator(educator).name("Subject").build());
+
+        Set<Question> questions = new HashSet<>();
+        for (int i = 0; i < numberOfQuestions; i++) {
+            Set<Option> options = new HashSet<>();
+            for (int j = 0; j < numberOfOptions; j++) {
+                options.add(Option.builder().option("option " + j).correct(j == 0).build());
+            }
+
+            questions.add(Question.builder().question("question " + i).options(options).build());
+        }
+
+        return entityManager.persist(Test.builder()
+                .subject(subject)
+                .name("Test")
+                .questions(questions)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private AttemptResult persistAttempt(Test test) {
+        User student = entityManager.persist(buildUser(UserRole.STUDENT));
+
+        Set<AttemptQuestion> attemptQuestions = new HashSet<>();
+        for (Question question : test.getQuestions()) {
+            Option option = question.getOptions().iterator().next();
+
+            attemptQuestions.add(AttemptQuestion.builder()
+                    .question(question)
+                    .answers(Set.of(AttemptAnswer.builder().option(option).correct(option.isCorrect()).build()))
+                    .score(option.isCorrect() ? 1 : 0)
+                    .maxScore(1)
+                    .build());
+        }
+
+        return entityManager.persist(AttemptResult.builder()
+                .id(UUID.randomUUID().toString())
+                .user(student)
+                .test(test)
+                .attemptQuestions(attemptQuestions)
+                .score(0)
+                .maxScore(attemptQuestions.size())
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private User buildUser(UserRole role) {
+        return User.builder()
+                .email(UUID.randomUUID() + "@mail.com")
+                .lastName("Doe")
+                .role(role)
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.testing.repository;
+
+import com.example.testing.model.test.Option;
+import com.example.testing.model.test.Question;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Verifies that a database created by ddl-auto of the version before migrations is upgraded on startup:
+ * it is baselined, the later migrations are applied and the mappings validate against the result
+ */
+@DataJpaTest
+class SchemaUpgradeTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+    @Autowired
+    DataSource dataSource;
+
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void whenStart_givenDatabaseOfVersionBeforeMigrations_thenBaselineAndApplyLaterMigrations() {
+        // when
+        List<String> applied = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"success\" = true order by \"installed_rank\"",
+                String.class
+        );
+
+        // then
+        assertThat(applied.get(0), is("1"));
+        assertThat(applied, hasItems("2", "3", "4"));
+
+        String baselineType = jdbcTemplate.queryForObject(
+                "select \"type\" from \"flyway_schema_history\" where \"version\" = '1'", String.class
+        );
+        assertThat(baselineType, is("BASELINE"));
+    }
+
+    @Test
+    void whenSave_givenDatabaseOfVersionBeforeMigrations_thenContinueIdsAfterExistingOnes() {
+        // given
+        Option option = Option.builder().option("d").build();
+        Question question = Question.builder().question("New question").options(Set.of(option)).build();
+
+        // when
+        entityManager.persistAndFlush(question);
+
+        // then
+        assertThat(question.getId(), is(greaterThan(1L)));
+        assertThat(option.getId(), is(greaterThan(3L)));
+    }
+
+    @Test
+    void whenQueryStats_givenDatabaseOfVersionBeforeMigrations_thenStatsTablesExist() {
+        // when
+        Long stripes = jdbcTemplate.queryForObject("select count(*) from test_stats", Long.class);
+
+        // then
+        assertThat(stripes, is(0L));
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        /**
+         * Creates the schema as ddl-auto of the version before migrations did, with some data, before migrating
+         */
+        @Bean
+        FlywayMigrationStrategy upgradeFromDdlAutoSchema() {
+            return flyway -> {
+                DataSource dataSource = flyway.getConfiguration().getDataSource();
+                new ResourceDatabasePopulator(new ClassPathResource("db/migration/common/V1__baseline.sql"))
+                        .execute(dataSource);
+
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+                jdbcTemplate.update("insert into questions (question) values ('Existing question')");
+                jdbcTemplate.update("insert into options (option, correct) values ('a', false), ('b', true), ('c', false)");
+                jdbcTemplate.update("insert into questions_options (question_id, options_id) values (1, 1), (1, 2), (1, 3)");
+
+                flyway.migrate();
+            };
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.testing.repository;
+
+import com.example.testing.config.persistence.SecondLevelCacheConfig;
+import com.example.testing.model.Subject;
+import com.example.testing.model.User;
+import com.example.testing.model.UserRole;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.test.Question;
+import com.example.testing.service.TestStatsService;
+import com.example.testing.service.impl.TestStatsServiceImpl;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Verifies that entities are served from the second level cache once committed and stay in sync with updates.
+ * Cache entries are visible only to transactions started after they are written, so every step commits on its own
+ */
+@DataJpaTest
+@Import({SecondLevelCacheConfig.class, TestStatsServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    SubjectRepository subjectRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    TestStatsRepository testStatsRepository;
+    @Autowired
+    TestStatsService testStatsService;
+
+    TransactionTemplate transactionTemplate;
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subjectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void whenFindSubjectById_givenSubjectHasBeenSaved_thenLoadSubjectAndEducatorFromCache() {
+        // given
+        Subject subject = saveSubject("Subject");
+        statistics.clear();
+
+        // when
+        Subject res = transactionTemplate.execute(status -> {
+            Subject found = subjectRepository.findById(subject.getId()).orElseThrow();
+            found.getEducator().getEmail();
+
+            return found;
+        });
+
+        // then
+        assertThat(res.getName(), is("Subject"));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(statistics.getSecondLevelCacheHitCount(), is(greaterThanOrEqualTo(2L)));
+    }
+
+    @Test
+    void whenFindSubjectById_givenSubjectHasBeenUpdated_thenLoadUpdatedSubjectFromCache() {
+        // given
+        Subject subject = saveSubject("Subject");
+        subject.setName("Updated subject");
+        subjectRepository.save(subject);
+        statistics.clear();
+
+        // when
+        Subject res = subjectRepository.findById(subject.getId()).orElseThrow();
+
+        // then
+        assertThat(res.getName(), is("Updated subject"));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+    }
+
+    @Test
+    void whenCreateTestStats_givenEntitiesAreCached_thenKeepCachedEntities() {
+        // given
+        Subject subject = saveSubject("Subject");
+
+        String testId = UUID.randomUUID().toString();
+        AttemptQuestion question = AttemptQuestion.builder()
+                .question(Question.builder().id(1L).build())
+                .score(1)
+                .maxScore(1)
+                .build();
+        AttemptResult attempt = AttemptResult.builder()
+                .test(com.example.testing.model.test.Test.builder().id(testId).build())
+                .attemptQuestions(Set.of(question))
+                .score(1)
+                .maxScore(1)
+                .build();
+
+        // when
+        testStatsService.createTestStats(testId);
+        testStatsService.recordAttempt(attempt);
+        statistics.clear();
+
+        Subject res = transactionTemplate.execute(status -> {
+            Subject found = subjectRepository.findById(subject.getId()).orElseThrow();
+            found.getEducator().getEmail();
+
+            return found;
+        });
+
+        // then
+        assertThat(res.getName(), is("Subject"));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(statistics.getSecondLevelCacheHitCount(), is(greaterThanOrEqualTo(2L)));
+        assertThat(testStatsRepository.sumByTestId(testId).getAttempts(), is(1L));
+    }
+
+    private Subject saveSubject(String name) {
+        User educator = userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@mail.com")
+                .role(UserRole.EDUCATOR)
+                .enabled(true)
+                .build());
+
+        return subjectRepository.save(Subject.builder()
+                .educator(educator)
+                .name(name)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.testing.service.attempt;
+
+import com.example.testing.exceptions.ServiceUnavailableException;
+import com.example.testing.model.User;
+import com.example.testing.model.attempt.AttemptAnswer;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.test.Option;
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import com.example.testing.repository.AttemptResultRepository;
+import com.example.testing.service.TestStatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WriteBehindAttemptWriterTest {
+    @Mock
+    AttemptResultRepository attemptRepository;
+    @Mock
+    TestStatsService testStatsService;
+    @Mock
+    EntityManager entityManager;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path dir;
+
+    @org.junit.jupiter.api.Test
+    void whenWrite_givenWriterIsNotStarted_thenThrowException() {
+        // given
+        WriteBehindAttemptWriter writer = buildWriter(10);
+
+        // when
+        // then
+        assertThrows(ServiceUnavailableException.class, () -> writer.write(buildAttempt("1")));
+        verifyNoInteractions(attemptRepository);
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenWrite_givenQueuedAttempts_thenSaveThemInBackground() {
+        // given
+        WriteBehindAttemptWriter writer = buildWriter(10);
+        AttemptResult attempt = buildAttempt("1");
+
+        // when
+        writer.start();
+        AttemptResult res = writer.write(attempt);
+        writer.stop();
+
+        // then
+        assertThat(res, is(attempt));
+        verify(attemptRepository).saveAll(List.of(attempt));
+        verify(testStatsService).recordAttempt(attempt);
+        assertThat(Files.exists(dir.resolve("pending.ndjson")), is(false));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenWrite_givenQueueIsFull_thenThrowException() throws Exception {
+        // given
+        WriteBehindAttemptWriter writer = buildWriter(1);
+
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when
+        when(attemptRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+
+        writer.start();
+        writer.write(buildAttempt("1"));
+        saving.await(5, TimeUnit.SECONDS);
+        writer.write(buildAttempt("2"));
+
+        // then
+        assertThrows(ServiceUnavailableException.class, () -> writer.write(buildAttempt("3")));
+
+        release.countDown();
+        writer.stop();
+        verify(attemptRepository, times(2)).saveAll(anyList());
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenStart_givenAttemptsWereSpilled_thenReplayThem() throws Exception {
+        // given
+        WriteBehindAttemptWriter failing = buildWriter(10);
+        Path spillFile = dir.resolve("pending.ndjson");
+
+        // when
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("Database is down"));
+
+        failing.start();
+        failing.write(buildAttempt("1"));
+        failing.stop();
+
+        // then
+        assertThat(Files.readAllLines(spillFile), hasSize(1));
+
+        // when
+        doReturn(null).when(transactionManager).getTransaction(any());
+
+        WriteBehindAttemptWriter writer = buildWriter(10);
+        writer.start();
+        writer.stop();
+
+        // then
+        verify(attemptRepository).existsById("1");
+        verify(attemptRepository).saveAll(ArgumentMatchers.<List<AttemptResult>>argThat(attempts -> {
+            AttemptResult attempt = attempts.get(0);
+            return attempt.getId().equals("1") && attempt.getScore() == 1 && attempt.getAttemptQuestions().size() == 1;
+        }));
+        assertThat(Files.exists(spillFile), is(false));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenStop_givenWriterIsSpilling_thenDontWaitForShutdownTimeout() throws Exception {
+        // given
+        WriteBehindAttemptWriter writer = buildWriter(10, 5000);
+
+        // when
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("Database is down"));
+
+        writer.start();
+        writer.write(buildAttempt("1"));
+
+        long start = System.nanoTime();
+        writer.stop();
+        long stopMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // then
+        assertThat(stopMs, lessThan(4000L));
+        assertThat(Files.readAllLines(dir.resolve("pending.ndjson")), hasSize(1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenStop_givenWriterDoesntFinishBatchInTime_thenSpillBatchAndQueuedAttempts() throws Exception {
+        // given
+        WriteBehindAttemptWriter writer = buildWriter(10, 200);
+
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when
+        when(attemptRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saving.countDown();
+            // database call that doesn't react to the interrupt
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (release.getCount() > 0 && System.nanoTime() < deadline) {
+                try {
+                    release.await(10, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ignored) {
+                }
+            }
+            return invocation.getArgument(0);
+        });
+
+        writer.start();
+        writer.write(buildAttempt("1"));
+        saving.await(5, TimeUnit.SECONDS);
+        writer.write(buildAttempt("2"));
+        writer.stop();
+
+        // then
+        List<String> spilled = Files.readAllLines(dir.resolve("pending.ndjson"));
+        assertThat(spilled, hasSize(2));
+        assertThat(spilled.get(0), containsString("\"id\":\"1\""));
+        assertThat(spilled.get(1), containsString("\"id\":\"2\""));
+
+        release.countDown();
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenWrite_givenFailedAttemptCantBeSpilled_thenKeepSavingLaterAttempts() throws Exception {
+        // given
+        Path blocked = Files.createFile(dir.resolve("blocked"));
+        WriteBehindAttemptWriter writer = buildWriter(10, 5000, blocked.resolve("pending.ndjson"));
+        AttemptResult attempt = buildAttempt("2");
+
+        // when
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("Database is down"))
+                .thenThrow(new CannotCreateTransactionException("Database is down"))
+                .thenReturn(null);
+
+        writer.start();
+        writer.write(buildAttempt("1"));
+        verify(transactionManager, timeout(5000).times(2)).getTransaction(any());
+
+        writer.write(attempt);
+        writer.stop();
+
+        // then
+        verify(attemptRepository).saveAll(List.of(attempt));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenStart_givenSpillFileHasMalformedLine_thenRejectItAndReplayTheRest() throws Exception {
+        // given
+        Path spillFile = dir.resolve("pending.ndjson");
+        Files.write(spillFile, List.of(
+                objectMapper.writeValueAsString(PendingAttempt.of(buildAttempt("1"))),
+                "{\"id\":\"2\",\"userId\":\"qw"
+        ));
+
+        WriteBehindAttemptWriter writer = buildWriter(10);
+
+        // when
+        writer.start();
+        writer.stop();
+
+        // then
+        verify(attemptRepository).saveAll(ArgumentMatchers.<List<AttemptResult>>argThat(
+                attempts -> attempts.get(0).getId().equals("1")
+        ));
+        assertThat(Files.readAllLines(dir.resolve("pending.ndjson.rejected")), contains("{\"id\":\"2\",\"userId\":\"qw"));
+        assertThat(Files.exists(spillFile), is(false));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenStart_givenReplayOfInterruptedReplayFails_thenReplayEveryAttemptOnce() throws Exception {
+        // given
+        Path spillFile = dir.resolve("pending.ndjson");
+        Files.write(dir.resolve("pending.ndjson.replay"), List.of(
+                objectMapper.writeValueAsString(PendingAttempt.of(buildAttempt("1")))
+        ));
+        Files.write(spillFile, List.of(
+                objectMapper.writeValueAsString(PendingAttempt.of(buildAttempt("2")))
+        ));
+
+        WriteBehindAttemptWriter writer = buildWriter(10);
+
+        // when
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("Database is down"));
+
+        writer.start();
+        writer.stop();
+
+        // then
+        verify(transactionManager, times(2)).getTransaction(any());
+
+        List<String> spilled = Files.readAllLines(spillFile);
+        assertThat(spilled, hasSize(2));
+        assertThat(spilled.get(0), containsString("\"id\":\"1\""));
+        assertThat(spilled.get(1), containsString("\"id\":\"2\""));
+    }
+
+    private WriteBehindAttemptWriter buildWriter(int queueCapacity) {
+        return buildWriter(queueCapacity, 5000);
+    }
+
+    private WriteBehindAttemptWriter buildWriter(int queueCapacity, long shutdownTimeoutMs) {
+        return buildWriter(queueCapacity, shutdownTimeoutMs, dir.resolve("pending.ndjson"));
+    }
+
+    private WriteBehindAttemptWriter buildWriter(int queueCapacity, long shutdownTimeoutMs, Path spillFile) {
+        return new WriteBehindAttemptWriter(
+                attemptRepository, testStatsService, entityManager, objectMapper, transactionManager,
+                queueCapacity, 10, 200, shutdownTimeoutMs, spillFile.toString()
+        );
+    }
+
+    private AttemptResult buildAttempt(String id) {
+        AttemptAnswer answer = AttemptAnswer.builder().option(Option.builder().id(2L).build()).correct(true).build();
+        AttemptQuestion question = AttemptQuestion.builder()
+                .question(Question.builder().id(1L).build())
+                .answers(Set.of(answer))
+                .score(1)
+                .maxScore(1)
+                .build();
+
+        return AttemptResult.builder()
+                .id(id)
+                .user(User.builder().id("qwer-1234").build())
+                .test(Test.builder().id("1234-qwer").build())
+                .attemptQuestions(Set.of(question))
+                .score(1)
+                .maxScore(1)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.testing.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class RenderedExamTest {
+
+    @Test
+    void whenMatches_givenEtagOfAnyRepresentation_thenReturnTrue() {
+        // given
+        RenderedExam exam = RenderedExam.of("{\"name\":\"First test\"}".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        boolean identity = exam.matches(exam.getEtag());
+        boolean gzip = exam.matches("\"other\", " + exam.getGzipEtag());
+        boolean weak = exam.matches("W/" + exam.getEtag());
+        boolean any = exam.matches("*");
+
+        // then
+        assertThat(identity, is(true));
+        assertThat(gzip, is(true));
+        assertThat(weak, is(true));
+        assertThat(any, is(true));
+    }
+
+    @Test
+    void whenMatches_givenEtagOfOtherVersion_thenReturnFalse() {
+        // given
+        RenderedExam exam = RenderedExam.of("{\"name\":\"First test\"}".getBytes(StandardCharsets.UTF_8));
+        RenderedExam updated = RenderedExam.of("{\"name\":\"Updated test\"}".getBytes(StandardCharsets.UTF_8));
+
+        // when
+        boolean res = exam.matches(updated.getEtag());
+
+        // then
+        assertThat(res, is(false));
+        assertThat(exam.matches(null), is(false));
+        assertThat(updated.getEtag(), not(exam.getEtag()));
+    }
+
+    @Test
+    void whenOf_givenBodyThatDoesntCompress_thenSkipGzipRepresentation() {
+        // given
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        RenderedExam exam = RenderedExam.of(body);
+
+        // then
+        assertThat(exam.hasGzipBody(), is(false));
+        assertThat(exam.getGzipBody(), nullValue());
+    }
+
+    @Test
+    void whenGetSize_givenExamHasGzipBody_thenCountBothRepresentations() {
+        // given
+        RenderedExam exam = RenderedExam.of("{\"name\":\"First test\"}".repeat(100).getBytes(StandardCharsets.UTF_8));
+
+        // when
+        int res = exam.getSize();
+
+        // then
+        assertThat(exam.hasGzipBody(), is(true));
+        assertThat(res, is(exam.getBody().length + exam.getGzipBody().length));
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.testing.service.grading;
+
+import com.example.testing.model.attempt.AttemptAnswer;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.test.Option;
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import com.example.testing.payload.attempt.AttemptAnswerDto;
+import com.example.testing.payload.attempt.AttemptQuestionDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnswerKeyTest {
+
+    @org.junit.jupiter.api.Test
+    void whenCompile_givenTest_thenMaxScoreIsNumberOfCorrectOptions() {
+        // given
+        Test test = buildTest("qwer-1234");
+
+        // when
+        AnswerKey answerKey = AnswerKey.compile(test);
+
+        // then
+        assertThat(answerKey.getTestId(), is(test.getId()));
+        assertThat(answerKey.getMaxScore(), is(3));
+        assertThat(answerKey.isCompiledFrom(test), is(true));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenIsCompiledFrom_givenTestHasBeenUpdated_thenReturnFalse() {
+        // given
+        Test test = buildTest("qwer-1234");
+        AnswerKey answerKey = AnswerKey.compile(test);
+
+        // when
+        test.setUpdatedAt(LocalDateTime.now());
+
+        // then
+        assertThat(answerKey.isCompiledFrom(test), is(false));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGrade_givenPartiallyCorrectAnswers_thenScoreEveryQuestion() {
+        // given
+        AnswerKey answerKey = AnswerKey.compile(buildTest("qwer-1234"));
+
+        List<AttemptQuestionDto> attemptQuestions = List.of(
+                AttemptQuestionDto.builder()
+                        .questionId(1L)
+                        .answers(Set.of(AttemptAnswerDto.builder().optionId(2L).build()))
+                        .build(),
+                AttemptQuestionDto.builder()
+                        .questionId(2L)
+                        .answers(Set.of(
+                                AttemptAnswerDto.builder().optionId(3L).build(),
+                                AttemptAnswerDto.builder().optionId(5L).build()
+                        ))
+                        .build()
+        );
+
+        // when
+        Map<Long, AttemptQuestion> res = answerKey.grade(attemptQuestions).stream()
+                .collect(Collectors.toMap(question -> question.getQuestion().getId(), Function.identity()));
+
+        // then
+        assertThat(res.keySet(), containsInAnyOrder(1L, 2L));
+
+        assertThat(res.get(1L).getScore(), is(1));
+        assertThat(res.get(1L).getMaxScore(), is(1));
+
+        AttemptQuestion question2 = res.get(2L);
+        assertThat(question2.getScore(), is(1));
+        assertThat(question2.getMaxScore(), is(2));
+        assertThat(question2.getAnswers(), hasSize(2));
+        assertThat(
+                question2.getAnswers().stream().filter(AttemptAnswer::isCorrect).map(answer -> answer.getOption().getId()).collect(Collectors.toList()),
+                contains(5L)
+        );
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGrade_givenUnansweredAndUnknownQuestions_thenUnansweredScoreZeroAndUnknownAreIgnored() {
+        // given
+        AnswerKey answerKey = AnswerKey.compile(buildTest("qwer-1234"));
+
+        List<AttemptQuestionDto> attemptQuestions = List.of(
+                AttemptQuestionDto.builder()
+                        .questionId(42L)
+                        .answers(Set.of(AttemptAnswerDto.builder().optionId(1L).build()))
+                        .build()
+        );
+
+        // when
+        Set<AttemptQuestion> res = answerKey.grade(attemptQuestions);
+
+        // then
+        assertThat(res, hasSize(2));
+        assertThat(res.stream().mapToInt(AttemptQuestion::getScore).sum(), is(0));
+        assertThat(res.stream().mapToInt(AttemptQuestion::getMaxScore).sum(), is(3));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGrade_givenOptionOfAnotherQuestion_thenThrowException() {
+        // given
+        AnswerKey answerKey = AnswerKey.compile(buildTest("qwer-1234"));
+
+        List<AttemptQuestionDto> attemptQuestions = List.of(
+                AttemptQuestionDto.builder()
+                        .questionId(1L)
+                        .answers(Set.of(AttemptAnswerDto.builder().optionId(4L).build()))
+                        .build()
+        );
+
+        // then
+        assertThrows(IllegalStateException.class, () -> answerKey.grade(attemptQuestions));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGrade_givenMoreAnswersThanCorrectOptions_thenThrowException() {
+        // given
+        AnswerKey answerKey = AnswerKey.compile(buildTest("qwer-1234"));
+
+        List<AttemptQuestionDto> attemptQuestions = List.of(
+                AttemptQuestionDto.builder()
+                        .questionId(1L)
+                        .answers(Set.of(
+                                AttemptAnswerDto.builder().optionId(1L).build(),
+                                AttemptAnswerDto.builder().optionId(2L).build()
+                        ))
+                        .build()
+        );
+
+        // then
+        assertThrows(IllegalStateException.class, () -> answerKey.grade(attemptQuestions));
+    }
+
+    private Test buildTest(String id) {
+        Question question1 = Question.builder()
+                .id(1L)
+                .question("What is the correct answer to question 1?")
+                .options(Set.of(
+                        Option.builder().id(1L).option("a").build(),
+                        Option.builder().id(2L).option("b").correct(true).build()
+                ))
+                .build();
+
+        Question question2 = Question.builder()
+                .id(2L)
+                .question("What is the correct answer to question 2?")
+                .options(Set.of(
+                        Option.builder().id(3L).option("a").build(),
+                        Option.builder().id(4L).option("b").correct(true).build(),
+                        Option.builder().id(5L).option("c").correct(true).build()
+                ))
+                .build();
+
+        return Test.builder()
+                .id(id)
+                .name("Test")
+                .questions(Set.of(question1, question2))
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.testing.service.impl;
+
+import com.example.testing.exceptions.ForbiddenException;
+import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.model.Subject;
+import com.example.testing.model.User;
+import com.example.testing.model.UserRole;
+import com.example.testing.model.test.Test;
+import com.example.testing.repository.AttemptResultRepository;
+import com.example.testing.repository.projection.AttemptExportRow;
+import com.example.testing.service.TestService;
+import com.example.testing.service.export.ExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AttemptExportServiceImplTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2023, 3, 1, 12, 0);
+
+    @Mock
+    AttemptResultRepository attemptRepository;
+    @Mock
+    TestService testService;
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    AttemptExportServiceImpl attemptExportService;
+
+    @org.junit.jupiter.api.Test
+    void whenExportAttempts_givenNdjsonFormat_thenWriteOneLinePerAttempt() throws Exception {
+        // given
+        String testId = "1234-qwer";
+
+        User educator = User.builder().id("qwer-1234").email("j.doe@mail.com").role(UserRole.EDUCATOR).build();
+        Test test = Test.builder().id(testId).subject(Subject.builder().educator(educator).build()).build();
+
+        Stream<AttemptExportRow> rows = Stream.of(
+                row("1", 1L, 1),
+                row("1", 2L, 0),
+                row("2", 1L, 1),
+                row("3", null, null)
+        );
+
+        // when
+        when(testService.getTestEntity(testId)).thenReturn(test);
+        when(attemptRepository.streamExportRowsByTest(test)).thenReturn(rows);
+
+        String res = export(attemptExportService.exportAttemptsByTestId(testId, ExportFormat.NDJSON, educator));
+
+        // then
+        verify(attemptRepository).streamExportRowsByTest(test);
+        verify(transactionManager).commit(any());
+
+        String[] lines = res.split("\n");
+        assertThat(lines, arrayWithSize(3));
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asText(), is("1"));
+        assertThat(first.get("questions").size(), is(2));
+        assertThat(first.get("questions").get(1).get("questionId").asLong(), is(2L));
+
+        assertThat(objectMapper.readTree(lines[1]).get("questions").size(), is(1));
+        assertThat(objectMapper.readTree(lines[2]).get("questions").size(), is(0));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenExportAttempts_givenCsvFormat_thenWriteOneLinePerQuestion() throws Exception {
+        // given
+        String testId = "1234-qwer";
+
+        User educator = User.builder().id("qwer-1234").email("j.doe@mail.com").role(UserRole.EDUCATOR).build();
+        Test test = Test.builder().id(testId).subject(Subject.builder().educator(educator).build()).build();
+
+        Stream<AttemptExportRow> rows = Stream.of(
+                row("1", 1L, 1),
+                row("1", 2L, 0),
+                row("2", null, null)
+        );
+
+        // when
+        when(testService.getTestEntity(testId)).thenReturn(test);
+        when(attemptRepository.streamExportRowsByTest(test)).thenReturn(rows);
+
+        String res = export(attemptExportService.exportAttemptsByTestId(testId, ExportFormat.CSV, educator));
+
+        // then
+        String[] lines = res.split("\n");
+        assertThat(lines, arrayWithSize(4));
+        assertThat(lines[0], startsWith("attempt_id,"));
+        assertThat(lines[1], is("1,1234,\"doe, j@mail.com\",2023-03-01T12:00,1,2,1,1,1"));
+        assertThat(lines[3], is("2,1234,\"doe, j@mail.com\",2023-03-01T12:00,1,2,,,"));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenExportAttempts_givenCsvFormatAndTextStartsWithFormula_thenEscapeFormula() throws Exception {
+        // given
+        String testId = "1234-qwer";
+
+        User educator = User.builder().id("qwer-1234").email("j.doe@mail.com").role(UserRole.EDUCATOR).build();
+        Test test = Test.builder().id(testId).subject(Subject.builder().educator(educator).build()).build();
+
+        Stream<AttemptExportRow> rows = Stream.of(
+                row("1", "=HYPERLINK(\"http://evil.com\")@mail.com"),
+                row("2", "+1@mail.com"),
+                row("3", "-1@mail.com"),
+                row("4", "@j.doe@mail.com")
+        );
+
+        // when
+        when(testService.getTestEntity(testId)).thenReturn(test);
+        when(attemptRepository.streamExportRowsByTest(test)).thenReturn(rows);
+
+        String res = export(attemptExportService.exportAttemptsByTestId(testId, ExportFormat.CSV, educator));
+
+        // then
+        String[] lines = res.split("\n");
+        assertThat(lines, arrayWithSize(5));
+        assertThat(lines[1], is("1,1234,\"'=HYPERLINK(\"\"http://evil.com\"\")@mail.com\",2023-03-01T12:00,1,2,,,"));
+        assertThat(lines[2], is("2,1234,'+1@mail.com,2023-03-01T12:00,1,2,,,"));
+        assertThat(lines[3], is("3,1234,'-1@mail.com,2023-03-01T12:00,1,2,,,"));
+        assertThat(lines[4], is("4,1234,'@j.doe@mail.com,2023-03-01T12:00,1,2,,,"));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenExportAttempts_givenUserIsNotTheEducatorOfTestSubject_thenThrowException() {
+        // given
+        String testId = "1234-qwer";
+
+        User user = User.builder().id("qwer-1234").email("j.doe@mail.com").role(UserRole.EDUCATOR).build();
+        User other = User.builder().id("1234-qwer").email("jane.doe@mail.com").role(UserRole.EDUCATOR).build();
+        Test test = Test.builder().id(testId).subject(Subject.builder().educator(other).build()).build();
+
+        // when
+        when(testService.getTestEntity(testId)).thenReturn(test);
+
+        // then
+        assertThrows(ForbiddenException.class, () -> attemptExportService.exportAttemptsByTestId(testId, ExportFormat.CSV, user));
+        verifyNoInteractions(attemptRepository);
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenExportAttempts_givenTestDoesntExist_thenThrowException() {
+        // given
+        String testId = "1234-qwer";
+
+        User user = User.builder().id("qwer-1234").email("j.doe@mail.com").role(UserRole.EDUCATOR).build();
+
+        // when
+        when(testService.getTestEntity(testId)).thenThrow(ResourceNotFoundException.class);
+
+        // then
+        assertThrows(ResourceNotFoundException.class, () -> attemptExportService.exportAttemptsByTestId(testId, ExportFormat.CSV, user));
+        verifyNoInteractions(attemptRepository);
+    }
+
+    private String export(StreamingResponseBody body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private AttemptExportRow row(String attemptId, Long questionId, Integer questionScore) {
+        return row(attemptId, "doe, j@mail.com", questionId, questionScore);
+    }
+
+    private AttemptExportRow row(String attemptId, String userEmail) {
+        return row(attemptId, userEmail, null, null);
+    }
+
+    private AttemptExportRow row(String attemptId, String userEmail, Long questionId, Integer questionScore) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("attemptId", attemptId);
+        values.put("userId", "1234");
+        values.put("userEmail", userEmail);
+        values.put("createdAt", CREATED_AT);
+        values.put("score", 1);
+        values.put("maxScore", 2);
+        values.put("questionId", questionId);
+        values.put("questionScore", questionScore);
+        values.put("questionMaxScore", questionId == null ? null : 1);
+
+        return new SpelAwareProxyProjectionFactory().createProjection(AttemptExportRow.class, values);
+    }
+}
@@ -2,6 +2,8 @@ package com.example.testing.service.impl;
 
 import com.example.testing.exceptions.ForbiddenException;
 import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.mapper.AttemptMapper;
+import com.example.testing.mapper.TestMapper;
 import com.example.testing.model.Subject;
 import com.example.testing.model.User;
 import com.example.testing.model.UserRole;
@@ -9,24 +11,47 @@ import com.example.testing.model.attempt.AttemptResult;
 import com.example.testing.model.test.Option;
 import com.example.testing.model.test.Question;
 import com.example.testing.model.test.Test;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.attempt.AttemptAnswerDto;
 import com.example.testing.payload.attempt.AttemptDto;
 import com.example.testing.payload.attempt.AttemptQuestionDto;
 import com.example.testing.payload.attempt.AttemptResultDto;
+import com.example.testing.payload.attempt.AttemptSummaryDto;
+import com.example.testing.payload.attempt.BulkAttemptItemDto;
+import com.example.testing.payload.attempt.BulkAttemptResponseDto;
+import com.example.testing.payload.attempt.BulkAttemptResultDto;
 import com.example.testing.repository.AttemptResultRepository;
+import com.example.testing.repository.projection.AttemptSummary;
 import com.example.testing.service.TestService;
+import com.example.testing.service.attempt.AttemptWriter;
+import com.example.testing.service.cache.TestSnapshot;
+import com.example.testing.service.pagination.Cursor;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
-
+import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,8 +61,12 @@ class AttemptServiceImplTest {
     AttemptResultRepository attemptRepository;
     @Mock
     TestService testService;
+    @Mock
+    AttemptWriter attemptWriter;
     @Spy
-    ModelMapper mapper;
+    AttemptMapper attemptMapper = new AttemptMapper(new TestMapper());
+    @Mock
+    TransactionTemplate transactionTemplate;
 
     @InjectMocks
     AttemptServiceImpl attemptService;
@@ -70,14 +99,14 @@ class AttemptServiceImplTest {
         AttemptDto attemptDto = AttemptDto.builder().questions(Set.of(question1, question2)).build();
 
         // when
-        when(testService.getTestEntity(testId)).thenReturn(test);
-        when(attemptRepository.save(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
 
         AttemptResultDto res = attemptService.processAttempt(testId, attemptDto, user);
 
         // then
-        verify(testService).getTestEntity(testId);
-        verify(attemptRepository).save(attemptCaptor.capture());
+        verify(testService).getTestSnapshot(testId);
+        verify(attemptWriter).write(attemptCaptor.capture());
 
         AttemptResult attemptResult = attemptCaptor.getValue();
         assertThat(attemptResult.getUser(), is(user));
@@ -86,12 +115,47 @@ class AttemptServiceImplTest {
         assertThat(attemptResult.getMaxScore(), is(3));
         assertThat(attemptResult.getAttemptQuestions(), hasSize(2));
         assertThat(attemptResult.getCreatedAt(), is(notNullValue()));
+        assertThat(attemptResult.getId(), is(notNullValue()));
 
         assertThat(res.getScore(), is(3));
         assertThat(res.getMaxScore(), is(3));
         assertThat(res.getAttemptQuestions(), hasSize(2));
     }
 
+    @org.junit.jupiter.api.Test
+    void whenProcessAttempt_givenWriterChangesAttemptAfterItIsQueued_thenReturnAttemptAsGraded() {
+        // given
+        String testId = "qwer-1234";
+
+        Test test = buildTest(testId);
+
+        User user = User.builder().id("1234").email("j.doe@mail.com").build();
+
+        AttemptQuestionDto question = AttemptQuestionDto.builder()
+                .questionId(1L)
+                .answers(Set.of(AttemptAnswerDto.builder().optionId(2L).build()))
+                .build();
+
+        AttemptDto attemptDto = AttemptDto.builder().questions(Set.of(question)).build();
+
+        // when
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class))).then(invocation -> {
+            // writer thread saving the queued attempt
+            AttemptResult attempt = invocation.getArgument(0);
+            attempt.setAttemptQuestions(new HashSet<>());
+            attempt.setScore(null);
+
+            return attempt;
+        });
+
+        AttemptResultDto res = attemptService.processAttempt(testId, attemptDto, user);
+
+        // then
+        assertThat(res.getScore(), is(1));
+        assertThat(res.getAttemptQuestions(), hasSize(2));
+    }
+
     @org.junit.jupiter.api.Test
     void whenProcessAttempt_givenOnlyOneCorrectAnswerToQuestionWithTwoCorrectAnswers_thenSaveAttemptResultWithScore2OutOf3() {
         // given
@@ -117,14 +181,14 @@ class AttemptServiceImplTest {
         AttemptDto attemptDto = AttemptDto.builder().questions(Set.of(question1, question2)).build();
 
         // when
-        when(testService.getTestEntity(testId)).thenReturn(test);
-        when(attemptRepository.save(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
 
         AttemptResultDto res = attemptService.processAttempt(testId, attemptDto, user);
 
         // then
-        verify(testService).getTestEntity(testId);
-        verify(attemptRepository).save(attemptCaptor.capture());
+        verify(testService).getTestSnapshot(testId);
+        verify(attemptWriter).write(attemptCaptor.capture());
 
         AttemptResult attemptResult = attemptCaptor.getValue();
         assertThat(attemptResult.getUser(), is(user));
@@ -163,14 +227,14 @@ class AttemptServiceImplTest {
         AttemptDto attemptDto = AttemptDto.builder().questions(Set.of(question1, question2)).build();
 
         // when
-        when(testService.getTestEntity(testId)).thenReturn(test);
-        when(attemptRepository.save(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
 
         AttemptResultDto res = attemptService.processAttempt(testId, attemptDto, user);
 
         // then
-        verify(testService).getTestEntity(testId);
-        verify(attemptRepository).save(attemptCaptor.capture());
+        verify(testService).getTestSnapshot(testId);
+        verify(attemptWriter).write(attemptCaptor.capture());
 
         AttemptResult attemptResult = attemptCaptor.getValue();
         assertThat(attemptResult.getUser(), is(user));
@@ -207,14 +271,14 @@ class AttemptServiceImplTest {
         AttemptDto attemptDto = AttemptDto.builder().questions(Set.of(question1, question2)).build();
 
         // when
-        when(testService.getTestEntity(testId)).thenReturn(test);
-        when(attemptRepository.save(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
 
         AttemptResultDto res = attemptService.processAttempt(testId, attemptDto, user);
 
         // then
-        verify(testService).getTestEntity(testId);
-        verify(attemptRepository).save(attemptCaptor.capture());
+        verify(testService).getTestSnapshot(testId);
+        verify(attemptWriter).write(attemptCaptor.capture());
 
         AttemptResult attemptResult = attemptCaptor.getValue();
         assertThat(attemptResult.getUser(), is(user));
@@ -255,11 +319,11 @@ class AttemptServiceImplTest {
         AttemptDto attemptDto = AttemptDto.builder().questions(Set.of(question1, question2)).build();
 
         // when
-        when(testService.getTestEntity(testId)).thenReturn(test);
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
 
         // then
         assertThrows(IllegalStateException.class, () -> attemptService.processAttempt(testId, attemptDto, user));
-        verify(testService).getTestEntity(testId);
+        verify(testService).getTestSnapshot(testId);
     }
 
     @org.junit.jupiter.api.Test
@@ -287,11 +351,11 @@ class AttemptServiceImplTest {
         AttemptDto attemptDto = AttemptDto.builder().questions(Set.of(question1, question2)).build();
 
         // when
-        when(testService.getTestEntity(testId)).thenReturn(test);
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
 
         // then
         assertThrows(IllegalStateException.class, () -> attemptService.processAttempt(testId, attemptDto, user));
-        verify(testService).getTestEntity(testId);
+        verify(testService).getTestSnapshot(testId);
     }
 
     @org.junit.jupiter.api.Test
@@ -304,11 +368,228 @@ class AttemptServiceImplTest {
         AttemptDto attemptDto = AttemptDto.builder().questions(Set.of()).build();
 
         // when
-        when(testService.getTestEntity(testId)).thenThrow(ResourceNotFoundException.class);
+        when(testService.getTestSnapshot(testId)).thenThrow(ResourceNotFoundException.class);
 
         // then
         assertThrows(ResourceNotFoundException.class, () -> attemptService.processAttempt(testId, attemptDto, user));
-        verify(testService).getTestEntity(testId);
+        verify(testService).getTestSnapshot(testId);
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenProcessAttempts_givenAttemptsOfTheSameTest_thenLoadTestOnceAndSaveInOneTransaction() {
+        // given
+        String testId = "qwer-1234";
+
+        Test test = buildTest(testId);
+
+        User user = User.builder().id("1234").email("j.doe@mail.com").build();
+
+        AttemptQuestionDto question = AttemptQuestionDto.builder()
+                .questionId(1L)
+                .answers(Set.of(AttemptAnswerDto.builder().optionId(2L).build()))
+                .build();
+
+        AttemptDto attemptDto = AttemptDto.builder().questions(Set.of(question)).build();
+
+        List<BulkAttemptItemDto> items = List.of(
+                BulkAttemptItemDto.builder().testId(testId).attempt(attemptDto).build(),
+                BulkAttemptItemDto.builder().testId(testId).attempt(attemptDto).build()
+        );
+
+        // when
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
+        when(transactionTemplate.execute(any())).thenAnswer(executeCallback());
+
+        BulkAttemptResponseDto res = attemptService.processAttempts(items, user);
+
+        // then
+        verify(testService, Mockito.times(1)).getTestSnapshot(testId);
+        verify(transactionTemplate, Mockito.times(1)).execute(any());
+        verify(attemptWriter, Mockito.times(2)).write(Mockito.any(AttemptResult.class));
+
+        assertThat(res.getSaved(), is(2));
+        assertThat(res.getFailed(), is(0));
+        assertThat(res.getResults(), hasSize(2));
+        assertThat(res.getResults().get(1).getIndex(), is(1));
+        assertThat(res.getResults().get(1).getResult().getScore(), is(1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenProcessAttempts_givenInvalidAttemptAndMissingTest_thenReportFailuresAndSaveTheRest() {
+        // given
+        String testId = "qwer-1234";
+        String missingTestId = "missing";
+
+        Test test = buildTest(testId);
+
+        User user = User.builder().id("1234").email("j.doe@mail.com").build();
+
+        AttemptDto validAttempt = AttemptDto.builder().questions(Set.of(
+                AttemptQuestionDto.builder()
+                        .questionId(1L)
+                        .answers(Set.of(AttemptAnswerDto.builder().optionId(2L).build()))
+                        .build()
+        )).build();
+
+        AttemptDto invalidAttempt = AttemptDto.builder().questions(Set.of(
+                AttemptQuestionDto.builder()
+                        .questionId(1L)
+                        .answers(Set.of(AttemptAnswerDto.builder().optionId(6L).build())) // wrong option with id 6
+                        .build()
+        )).build();
+
+        List<BulkAttemptItemDto> items = List.of(
+                BulkAttemptItemDto.builder().testId(missingTestId).attempt(validAttempt).build(),
+                BulkAttemptItemDto.builder().testId(testId).attempt(invalidAttempt).build(),
+                BulkAttemptItemDto.builder().testId(testId).attempt(validAttempt).build(),
+                BulkAttemptItemDto.builder().testId(missingTestId).attempt(validAttempt).build()
+        );
+
+        // when
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(testService.getTestSnapshot(missingTestId)).thenThrow(new ResourceNotFoundException("Test", "id", missingTestId));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
+        when(transactionTemplate.execute(any())).thenAnswer(executeCallback());
+
+        BulkAttemptResponseDto res = attemptService.processAttempts(items, user);
+
+        // then
+        verify(testService, Mockito.times(1)).getTestSnapshot(missingTestId);
+        verify(attemptWriter, Mockito.times(1)).write(Mockito.any(AttemptResult.class));
+
+        assertThat(res.getSaved(), is(1));
+        assertThat(res.getFailed(), is(3));
+        assertThat(res.getResults().get(0).getStatus(), is(BulkAttemptResultDto.Status.FAILED));
+        assertThat(res.getResults().get(1).getStatus(), is(BulkAttemptResultDto.Status.FAILED));
+        assertThat(res.getResults().get(2).getStatus(), is(BulkAttemptResultDto.Status.SAVED));
+        assertThat(res.getResults().get(3).getStatus(), is(BulkAttemptResultDto.Status.FAILED));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenProcessAttempts_givenChunkFailsToSave_thenRetryAttemptsOneByOne() {
+        // given
+        String testId = "qwer-1234";
+
+        Test test = buildTest(testId);
+
+        User user = User.builder().id("1234").email("j.doe@mail.com").build();
+
+        AttemptDto attemptDto = AttemptDto.builder().questions(Set.of()).build();
+
+        List<BulkAttemptItemDto> items = List.of(
+                BulkAttemptItemDto.builder().testId(testId).attempt(attemptDto).build(),
+                BulkAttemptItemDto.builder().testId(testId).attempt(attemptDto).build()
+        );
+
+        // when
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class)))
+                .thenThrow(new IllegalStateException("Constraint violation"))
+                .thenThrow(new IllegalStateException("Constraint violation"))
+                .then(AdditionalAnswers.returnsFirstArg());
+        when(transactionTemplate.execute(any())).thenAnswer(executeCallback());
+
+        BulkAttemptResponseDto res = attemptService.processAttempts(items, user);
+
+        // then
+        verify(transactionTemplate, Mockito.times(3)).execute(any());
+
+        assertThat(res.getSaved(), is(1));
+        assertThat(res.getFailed(), is(1));
+        assertThat(res.getResults().get(0).getStatus(), is(BulkAttemptResultDto.Status.FAILED));
+        assertThat(res.getResults().get(1).getStatus(), is(BulkAttemptResultDto.Status.SAVED));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenProcessAttempts_givenOneAttemptOfChunkFails_thenRetryOthersWithFreshEntities() {
+        // given
+        String testId = "qwer-1234";
+
+        Test test = buildTest(testId);
+
+        User user = User.builder().id("1234").email("j.doe@mail.com").build();
+
+        AttemptDto attemptDto = AttemptDto.builder().questions(Set.of(
+                AttemptQuestionDto.builder()
+                        .questionId(1L)
+                        .answers(Set.of(AttemptAnswerDto.builder().optionId(2L).build()))
+                        .build()
+        )).build();
+
+        List<BulkAttemptItemDto> items = List.of(
+                BulkAttemptItemDto.builder().testId(testId).attempt(attemptDto).build(),
+                BulkAttemptItemDto.builder().testId(testId).attempt(attemptDto).build(),
+                BulkAttemptItemDto.builder().testId(testId).attempt(attemptDto).build()
+        );
+
+        // second attempt fails both in the chunk and on its own
+        List<AttemptResult> written = new ArrayList<>();
+        Answer<Object> write = invocation -> {
+            AttemptResult attempt = invocation.getArgument(0);
+            written.add(attempt);
+            if (written.size() == 2 || written.size() == 4) {
+                throw new IllegalStateException("Constraint violation");
+            }
+            return attempt;
+        };
+
+        // when
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class))).thenAnswer(write);
+        when(transactionTemplate.execute(any())).thenAnswer(executeCallback());
+
+        BulkAttemptResponseDto res = attemptService.processAttempts(items, user);
+
+        // then
+        assertThat(written, hasSize(5));
+
+        AttemptResult chunkAttempt = written.get(0);
+        AttemptResult retriedAttempt = written.get(2);
+        assertThat(retriedAttempt, is(not(sameInstance(chunkAttempt))));
+        assertThat(retriedAttempt.getId(), is(chunkAttempt.getId()));
+        assertThat(retriedAttempt.getCreatedAt(), is(chunkAttempt.getCreatedAt()));
+        assertThat(retriedAttempt.getScore(), is(chunkAttempt.getScore()));
+        assertThat(
+                retriedAttempt.getAttemptQuestions().iterator().next(),
+                is(not(sameInstance(chunkAttempt.getAttemptQuestions().iterator().next())))
+        );
+
+        assertThat(res.getSaved(), is(2));
+        assertThat(res.getFailed(), is(1));
+        assertThat(res.getResults().get(0).getStatus(), is(BulkAttemptResultDto.Status.SAVED));
+        assertThat(res.getResults().get(1).getStatus(), is(BulkAttemptResultDto.Status.FAILED));
+        assertThat(res.getResults().get(2).getStatus(), is(BulkAttemptResultDto.Status.SAVED));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenProcessAttempts_givenAttemptsAreWrittenBehind_thenReportThemAsAccepted() {
+        // given
+        String testId = "qwer-1234";
+
+        Test test = buildTest(testId);
+
+        User user = User.builder().id("1234").email("j.doe@mail.com").build();
+
+        AttemptDto attemptDto = AttemptDto.builder().questions(Set.of()).build();
+
+        List<BulkAttemptItemDto> items = List.of(
+                BulkAttemptItemDto.builder().testId(testId).attempt(attemptDto).build()
+        );
+
+        // when
+        when(testService.getTestSnapshot(testId)).thenReturn(TestSnapshot.of(test, null));
+        when(attemptWriter.write(Mockito.any(AttemptResult.class))).then(AdditionalAnswers.returnsFirstArg());
+        when(attemptWriter.isDeferred()).thenReturn(true);
+        when(transactionTemplate.execute(any())).thenAnswer(executeCallback());
+
+        BulkAttemptResponseDto res = attemptService.processAttempts(items, user);
+
+        // then
+        assertThat(res.getSaved(), is(0));
+        assertThat(res.getAccepted(), is(1));
+        assertThat(res.getFailed(), is(0));
+        assertThat(res.getResults().get(0).getStatus(), is(BulkAttemptResultDto.Status.ACCEPTED));
     }
 
     @org.junit.jupiter.api.Test
@@ -428,14 +709,14 @@ class AttemptServiceImplTest {
 
         // when
         when(testService.getTestEntity(testId)).thenReturn(test);
-        when(attemptRepository.findByTest(test)).thenReturn(attempts);
+        when(attemptRepository.findByTest(eq(test), any(Pageable.class))).thenReturn(new SliceImpl<>(attempts));
 
-        List<AttemptResultDto> res = attemptService.getAttemptsByTestId(testId, user);
+        PageDto<AttemptResultDto> res = attemptService.getAttemptsByTestId(testId, user, new PageRequestDto());
 
         // then
         verify(testService).getTestEntity(testId);
-        verify(attemptRepository).findByTest(test);
-        assertThat(res, hasSize(2));
+        verify(attemptRepository).findByTest(eq(test), any(Pageable.class));
+        assertThat(res.getItems(), hasSize(2));
     }
 
     @org.junit.jupiter.api.Test
@@ -453,7 +734,7 @@ class AttemptServiceImplTest {
         when(testService.getTestEntity(testId)).thenReturn(test);
 
         // then
-        assertThrows(ForbiddenException.class, () -> attemptService.getAttemptsByTestId(testId, user));
+        assertThrows(ForbiddenException.class, () -> attemptService.getAttemptsByTestId(testId, user, new PageRequestDto()));
         verify(testService).getTestEntity(testId);
     }
 
@@ -468,7 +749,7 @@ class AttemptServiceImplTest {
         when(testService.getTestEntity(testId)).thenThrow(ResourceNotFoundException.class);
 
         // then
-        assertThrows(ResourceNotFoundException.class, () -> attemptService.getAttemptsByTestId(testId, user));
+        assertThrows(ResourceNotFoundException.class, () -> attemptService.getAttemptsByTestId(testId, user, new PageRequestDto()));
         verify(testService).getTestEntity(testId);
     }
 
@@ -487,13 +768,53 @@ class AttemptServiceImplTest {
         );
 
         // when
-        when(attemptRepository.findByUser(user)).thenReturn(attempts);
+        when(attemptRepository.findByUser(eq(user), any(Pageable.class))).thenReturn(new SliceImpl<>(attempts));
 
-        List<AttemptResultDto> res = attemptService.getAttemptsByUser(user);
+        PageDto<AttemptResultDto> res = attemptService.getAttemptsByUser(user, new PageRequestDto());
 
         // then
-        verify(attemptRepository).findByUser(user);
-        assertThat(res, hasSize(2));
+        verify(attemptRepository).findByUser(eq(user), any(Pageable.class));
+        assertThat(res.getItems(), hasSize(2));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGetAttemptSummariesByUser_thenReturnSummariesWithCursorOfTheLastOne() {
+        // given
+        User user = User.builder().id("qwer-1234").email("j.doe@mail.com").role(UserRole.STUDENT).build();
+
+        LocalDateTime createdAt = LocalDateTime.of(2023, 3, 1, 10, 0);
+        List<AttemptSummary> summaries = List.of(
+                buildSummary("2222", createdAt.plusMinutes(1)),
+                buildSummary("1111", createdAt)
+        );
+
+        PageRequestDto pageRequest = PageRequestDto.builder().limit(2).build();
+
+        // when
+        when(attemptRepository.findSummariesByUser(eq(user), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(summaries, PageRequest.of(0, 2), true));
+
+        PageDto<AttemptSummaryDto> res = attemptService.getAttemptSummariesByUser(user, pageRequest);
+
+        // then
+        verify(attemptRepository).findSummariesByUser(eq(user), any(Pageable.class));
+        assertThat(res.getItems(), hasSize(2));
+        assertThat(res.getItems().get(0).getId(), is("2222"));
+        assertThat(res.getItems().get(0).getTestName(), is("Test"));
+        assertThat(res.getItems().get(1).getCreatedAt(), is(createdAt));
+        assertThat(res.getNextCursor(), is(Cursor.of(createdAt, "1111").encode()));
+    }
+
+    private static AttemptSummary buildSummary(String attemptId, LocalDateTime submittedAt) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("attemptId", attemptId);
+        values.put("testId", "qwer-1234");
+        values.put("testName", "Test");
+        values.put("score", 2);
+        values.put("maxScore", 3);
+        values.put("submittedAt", submittedAt);
+
+        return new SpelAwareProxyProjectionFactory().createProjection(AttemptSummary.class, values);
     }
 
     private Test buildTest(String id) {
@@ -522,4 +843,8 @@ class AttemptServiceImplTest {
                 .questions(Set.of(question1, question2))
                 .build();
     }
-}
\ No newline at end of file
+
+    private static Answer<Object> executeCallback() {
+        return invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.testing.service.impl;
 
 import com.example.testing.exceptions.ResourceAlreadyExistException;
+import com.example.testing.mapper.UserMapper;
 import com.example.testing.model.User;
 import com.example.testing.model.UserRole;
 import com.example.testing.payload.UserDto;
@@ -8,21 +9,26 @@ import com.example.testing.payload.auth.SignInRequestDto;
 import com.example.testing.payload.auth.SignInResponseDto;
 import com.example.testing.repository.UserRepository;
 import com.example.testing.service.JwtService;
+import com.example.testing.service.auth.TokenAuthenticationCache;
+import com.example.testing.service.auth.VerifiedToken;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.hamcrest.MatcherAssert.*;
@@ -44,7 +50,15 @@ class AuthServiceImplTest {
     AuthenticationManager authManager;
 
     @Spy
-    ModelMapper mapper;
+    UserMapper userMapper;
+
+    @Spy
+    TokenAuthenticationCache tokenAuthenticationCache = new TokenAuthenticationCache(100, 10);
+
+    PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+
+    @Spy
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
 
     @InjectMocks
     AuthServiceImpl authService;
@@ -165,13 +179,13 @@ class AuthServiceImplTest {
                 .enabled(true).build();
 
         // when
-        when(jwtService.decodeToken(token)).thenReturn(userId);
+        when(jwtService.verifyToken(token)).thenReturn(VerifiedToken.of(userId, Instant.now().plusSeconds(60)));
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
         Authentication res = authService.exchangeToken(token);
 
         // then
-        verify(jwtService).decodeToken(token);
+        verify(jwtService).verifyToken(token);
         verify(userRepository).findById(userId);
 
         assertThat(res.isAuthenticated(), is(true));
@@ -179,6 +193,24 @@ class AuthServiceImplTest {
         assertThat((String) res.getCredentials(), is(token));
     }
 
+    @Test
+    void whenExchangeToken_givenTokenIsNotCached_thenLoadUserInReadWriteTransaction() {
+        // given
+        String token = "eyJ0eXA.eyJzdWIi.Ou-2-0gYTg";
+
+        String userId = "1234";
+        User user = User.builder().id(userId).email("j.doe@mail.com").role(UserRole.STUDENT).enabled(true).build();
+
+        // when
+        when(jwtService.verifyToken(token)).thenReturn(VerifiedToken.of(userId, Instant.now().plusSeconds(60)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        authService.exchangeToken(token);
+
+        // then
+        verify(transactionManager).getTransaction(Mockito.argThat(definition -> !definition.isReadOnly()));
+    }
+
     @Test
     void whenExchangeToken_givenUserDoesntExist_thenThrowException() {
         // given
@@ -187,12 +219,12 @@ class AuthServiceImplTest {
         String userId = "1234";
 
         // when
-        when(jwtService.decodeToken(token)).thenReturn(userId);
+        when(jwtService.verifyToken(token)).thenReturn(VerifiedToken.of(userId, Instant.now().plusSeconds(60)));
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         // then
         assertThrows(RuntimeException.class, () -> authService.exchangeToken(token));
-        verify(jwtService).decodeToken(token);
+        verify(jwtService).verifyToken(token);
         verify(userRepository).findById(userId);
     }
 
@@ -202,10 +234,69 @@ class AuthServiceImplTest {
         String token = "eyJ0eXA.eyJzdWIi.Ou-2-0gYTg";
 
         // when
-        when(jwtService.decodeToken(token)).thenThrow(new RuntimeException());
+        when(jwtService.verifyToken(token)).thenThrow(new RuntimeException());
 
         // then
         assertThrows(RuntimeException.class, () -> authService.exchangeToken(token));
-        verify(jwtService).decodeToken(token);
+        verify(jwtService).verifyToken(token);
+    }
+
+    @Test
+    void whenExchangeToken_givenTokenWasExchangedBefore_thenReturnCachedUser() {
+        // given
+        String token = "eyJ0eXA.eyJzdWIi.Ou-2-0gYTg";
+
+        String userId = "1234";
+        User user = User.builder().id(userId).email("j.doe@mail.com").role(UserRole.STUDENT).enabled(true).build();
+
+        // when
+        when(jwtService.verifyToken(token)).thenReturn(VerifiedToken.of(userId, Instant.now().plusSeconds(60)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        authService.exchangeToken(token);
+        Authentication res = authService.exchangeToken(token);
+
+        // then
+        verify(jwtService, times(1)).verifyToken(token);
+        verify(userRepository, times(1)).findById(userId);
+        assertThat((User) res.getPrincipal(), is(user));
+    }
+
+    @Test
+    void whenExchangeToken_givenUserWasInvalidated_thenLoadUserAgain() {
+        // given
+        String token = "eyJ0eXA.eyJzdWIi.Ou-2-0gYTg";
+
+        String userId = "1234";
+        User user = User.builder().id(userId).email("j.doe@mail.com").role(UserRole.STUDENT).enabled(true).build();
+
+        // when
+        when(jwtService.verifyToken(token)).thenReturn(VerifiedToken.of(userId, Instant.now().plusSeconds(60)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        authService.exchangeToken(token);
+        tokenAuthenticationCache.invalidateUser(userId);
+        authService.exchangeToken(token);
+
+        // then
+        verify(jwtService, times(2)).verifyToken(token);
+        verify(userRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    void whenExchangeToken_givenUserIsDisabled_thenThrowException() {
+        // given
+        String token = "eyJ0eXA.eyJzdWIi.Ou-2-0gYTg";
+
+        String userId = "1234";
+        User user = User.builder().id(userId).email("j.doe@mail.com").role(UserRole.STUDENT).enabled(false).build();
+
+        // when
+        when(jwtService.verifyToken(token)).thenReturn(VerifiedToken.of(userId, Instant.now().plusSeconds(60)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        // then
+        assertThrows(IllegalStateException.class, () -> authService.exchangeToken(token));
+        assertThat(tokenAuthenticationCache.getSize(), is(0L));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.example.testing.service.impl;
+
+import com.example.testing.model.Subject;
+import com.example.testing.model.User;
+import com.example.testing.model.UserRole;
+import com.example.testing.payload.attempt.AttemptAnswerDto;
+import com.example.testing.payload.attempt.AttemptDto;
+import com.example.testing.payload.attempt.AttemptQuestionDto;
+import com.example.testing.payload.attempt.AttemptResultDto;
+import com.example.testing.payload.test.OptionDto;
+import com.example.testing.payload.test.QuestionDto;
+import com.example.testing.payload.test.TestDto;
+import com.example.testing.repository.SubjectRepository;
+import com.example.testing.repository.UserRepository;
+import com.example.testing.service.AttemptService;
+import com.example.testing.service.TestService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Verifies that attempts are graded by the latest version of the test while read-only transactions run on the replica.
+ * Replica is a copy of the primary taken at a given moment, so it lags behind until it is copied again.
+ * Second level cache is disabled, so entities aren't served from it instead of the replica
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaGradingTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "datasource.replica.enabled=true",
+        "datasource.replica.jdbc-url=" + ReadReplicaGradingTest.REPLICA_URL,
+        "datasource.replica.username=sa",
+        "datasource.replica.password=",
+        "cache.entities.enabled=false",
+        "server.port=0",
+        "management.server.port=0"
+})
+class ReadReplicaGradingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:read-replica-grading-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:read-replica-grading-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    TestService testService;
+    @Autowired
+    AttemptService attemptService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    SubjectRepository subjectRepository;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void whenProcessAttempt_givenTestHasBeenUpdatedAndReplicaLags_thenGradeByUpdatedTest() throws SQLException {
+        // given
+        User educator = saveUser(UserRole.EDUCATOR);
+        User student = saveUser(UserRole.STUDENT);
+        Subject subject = saveSubject(educator);
+
+        TestDto test = testService.saveTest(buildTest(subject, "First"), educator);
+        testService.getExam(test.getId());
+        replicate();
+
+        TestDto updated = testService.updateTest(test.getId(), buildTest(subject, "Second"), educator);
+
+        // when
+        AttemptResultDto res = attemptService.processAttempt(test.getId(), buildCorrectAttempt(updated), student);
+
+        // then
+        assertThat(res.getMaxScore(), is(greaterThan(0)));
+        assertThat(res.getScore(), is(res.getMaxScore()));
+    }
+
+    @Test
+    void whenProcessAttempt_givenTestIsNotReplicatedYet_thenGradeTest() throws SQLException {
+        // given
+        User educator = saveUser(UserRole.EDUCATOR);
+        User student = saveUser(UserRole.STUDENT);
+        Subject subject = saveSubject(educator);
+        replicate();
+
+        TestDto test = testService.saveTest(buildTest(subject, "First"), educator);
+
+        // when
+        AttemptResultDto res = attemptService.processAttempt(test.getId(), buildCorrectAttempt(test), student);
+
+        // then
+        assertThat(res.getTestId(), is(test.getId()));
+        assertThat(res.getScore(), is(res.getMaxScore()));
+    }
+
+    private void replicate() throws SQLException {
+        String script = dir.resolve("primary.sql").toString();
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("RUNSCRIPT FROM '" + script + "'");
+        }
+    }
+
+    private User saveUser(UserRole role) {
+        return userRepository.save(User.builder()
+                .email(UUID.randomUUID() + "@mail.com")
+                .role(role)
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Subject saveSubject(User educator) {
+        return subjectRepository.save(Subject.builder()
+                .educator(educator)
+                .name("Subject")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static TestDto buildTest(Subject subject, String name) {
+        return TestDto.builder()
+                .subjectId(subject.getId())
+                .name(name)
+                .questions(Set.of(buildQuestion(name + " question 1"), buildQuestion(name + " question 2")))
+                .build();
+    }
+
+    private static QuestionDto buildQuestion(String question) {
+        return QuestionDto.builder()
+                .question(question)
+                .options(Set.of(
+                        OptionDto.builder().option("a").build(),
+                        OptionDto.builder().option("b").correct(true).build()
+                ))
+                .build();
+    }
+
+    private static AttemptDto buildCorrectAttempt(TestDto test) {
+        Set<AttemptQuestionDto> questions = test.getQuestions().stream()
+                .map(question -> AttemptQuestionDto.builder()
+                        .questionId(question.getId())
+                        .answers(question.getOptions().stream()
+                                .filter(OptionDto::isCorrect)
+                                .map(option -> AttemptAnswerDto.builder().optionId(option.getId()).build())
+                                .collect(Collectors.toSet()))
+                        .build())
+                .collect(Collectors.toSet());
+
+        return AttemptDto.builder().questions(questions).build();
+    }
+}
@@ -2,24 +2,36 @@ package com.example.testing.service.impl;
 
 import com.example.testing.exceptions.ForbiddenException;
 import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.mapper.SubjectMapper;
+import com.example.testing.mapper.UserMapper;
 import com.example.testing.model.Subject;
 import com.example.testing.model.User;
 import com.example.testing.model.UserRole;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.SubjectDto;
 import com.example.testing.repository.SubjectRepository;
 import com.example.testing.repository.UserRepository;
+import com.example.testing.service.TestStatsService;
+import com.example.testing.service.cache.TestSnapshotCache;
+import com.example.testing.service.pagination.Cursor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,8 +41,12 @@ class SubjectServiceImplTest {
     SubjectRepository subjectRepository;
     @Mock
     UserRepository userRepository;
+    @Mock
+    TestSnapshotCache testSnapshotCache;
+    @Mock
+    TestStatsService testStatsService;
     @Spy
-    ModelMapper mapper;
+    SubjectMapper subjectMapper = new SubjectMapper(new UserMapper());
 
     @InjectMocks
     SubjectServiceImpl subjectService;
@@ -165,6 +181,7 @@ class SubjectServiceImplTest {
         // then
         verify(subjectRepository).findById(subjectId);
         verify(subjectRepository).delete(existing);
+        verify(testSnapshotCache).invalidateBySubject(subjectId);
     }
 
     @Test
@@ -228,13 +245,54 @@ class SubjectServiceImplTest {
                 Subject.builder().id("qwer-1234").name("Test2").build()
         );
 
+        PageRequestDto pageRequest = new PageRequestDto();
+
+        // when
+        when(subjectRepository.findAllBy(any(Pageable.class))).thenReturn(new SliceImpl<>(subjects));
+        PageDto<SubjectDto> res = subjectService.getAllSubjects(pageRequest);
+
+        // then
+        verify(subjectRepository).findAllBy(any(Pageable.class));
+        assertThat(res.getItems(), hasSize(subjects.size()));
+        assertThat(res.getPage(), is(0));
+        assertThat(res.getNextCursor(), nullValue());
+    }
+
+    @Test
+    void whenGetAllSubjects_givenCursor_thenReturnSubjectsAfterCursor() {
+        // given
+        LocalDateTime createdAt = LocalDateTime.of(2023, 3, 1, 12, 0);
+        Cursor cursor = Cursor.of(createdAt, "zxcv-5678");
+
+        List<Subject> subjects = List.of(
+                Subject.builder().id("1234-qwer").name("Test1").createdAt(createdAt).build(),
+                Subject.builder().id("qwer-1234").name("Test2").createdAt(createdAt.minusDays(1)).build()
+        );
+
+        PageRequestDto pageRequest = PageRequestDto.builder().cursor(cursor.encode()).limit(2).build();
+        Pageable pageable = PageRequest.of(0, 2);
+
         // when
-        when(subjectRepository.findAll()).thenReturn(subjects);
-        List<SubjectDto> res = subjectService.getAllSubjects();
+        when(subjectRepository.findAllAfter(eq(createdAt), eq("zxcv-5678"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(subjects, pageable, true));
+        PageDto<SubjectDto> res = subjectService.getAllSubjects(pageRequest);
 
         // then
-        verify(subjectRepository).findAll();
-        assertThat(res, hasSize(subjects.size()));
+        verify(subjectRepository).findAllAfter(eq(createdAt), eq("zxcv-5678"), any(Pageable.class));
+        assertThat(res.getItems(), hasSize(subjects.size()));
+        assertThat(res.getPage(), nullValue());
+        assertThat(Cursor.decode(res.getNextCursor()), is(Cursor.of(createdAt.minusDays(1), "qwer-1234")));
+    }
+
+    @Test
+    void whenGetAllSubjects_givenPageAndCursor_thenThrowException() {
+        // given
+        String cursor = Cursor.of(LocalDateTime.now(), "zxcv-5678").encode();
+        PageRequestDto pageRequest = PageRequestDto.builder().page(1).cursor(cursor).build();
+
+        // when
+        // then
+        assertThrows(IllegalStateException.class, () -> subjectService.getAllSubjects(pageRequest));
     }
 
     @Test
@@ -250,15 +308,15 @@ class SubjectServiceImplTest {
 
         // when
         when(userRepository.findByIdAndRole(educatorId, UserRole.EDUCATOR)).thenReturn(Optional.of(educator));
-        when(subjectRepository.findAllByEducator(educator)).thenReturn(subjects);
+        when(subjectRepository.findAllByEducator(eq(educator), any(Pageable.class))).thenReturn(new SliceImpl<>(subjects));
 
-        List<SubjectDto> res = subjectService.getSubjectsByEducatorId(educatorId);
+        PageDto<SubjectDto> res = subjectService.getSubjectsByEducatorId(educatorId, new PageRequestDto());
 
         // then
         verify(userRepository).findByIdAndRole(educatorId, UserRole.EDUCATOR);
-        verify(subjectRepository).findAllByEducator(educator);
+        verify(subjectRepository).findAllByEducator(eq(educator), any(Pageable.class));
 
-        assertThat(res, hasSize(subjects.size()));
+        assertThat(res.getItems(), hasSize(subjects.size()));
     }
 
     @Test
@@ -270,7 +328,7 @@ class SubjectServiceImplTest {
         when(userRepository.findByIdAndRole(educatorId, UserRole.EDUCATOR)).thenReturn(Optional.empty());
 
         // then
-        assertThrows(ResourceNotFoundException.class, () -> subjectService.getSubjectsByEducatorId(educatorId));
+        assertThrows(ResourceNotFoundException.class, () -> subjectService.getSubjectsByEducatorId(educatorId, new PageRequestDto()));
         verify(userRepository).findByIdAndRole(educatorId, UserRole.EDUCATOR);
     }
 
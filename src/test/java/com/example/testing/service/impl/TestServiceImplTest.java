@@ -2,30 +2,47 @@ package com.example.testing.service.impl;
 
 import com.example.testing.exceptions.ForbiddenException;
 import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.mapper.TestMapper;
 import com.example.testing.model.Subject;
 import com.example.testing.model.User;
 import com.example.testing.model.UserRole;
 import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.test.Option;
 import com.example.testing.model.test.Question;
 import com.example.testing.model.test.Test;
+import com.example.testing.payload.PageDto;
+import com.example.testing.payload.PageRequestDto;
 import com.example.testing.payload.test.OptionDto;
 import com.example.testing.payload.test.QuestionDto;
 import com.example.testing.payload.test.TestDto;
 import com.example.testing.repository.TestRepository;
 import com.example.testing.service.SubjectService;
+import com.example.testing.service.TestStatsService;
+import com.example.testing.service.cache.ExamRenderer;
+import com.example.testing.service.cache.RenderedExam;
+import com.example.testing.service.cache.TestSnapshotCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,8 +53,16 @@ class TestServiceImplTest {
     TestRepository testRepository;
     @Mock
     SubjectService subjectService;
+    @Mock
+    TestStatsService testStatsService;
+    @Spy
+    TestSnapshotCache testSnapshotCache = new TestSnapshotCache(1000, 1_000_000);
+    @Spy
+    TestMapper testMapper;
+    @Spy
+    ExamRenderer examRenderer = new ExamRenderer(new TestMapper(), new ObjectMapper());
     @Spy
-    ModelMapper mapper;
+    TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
 
     @InjectMocks
     TestServiceImpl testService;
@@ -84,6 +109,7 @@ class TestServiceImplTest {
         // then
         verify(subjectService).getSubjectEntityAndVerifyEducator(subjectId, user);
         verify(testRepository).save(testCaptor.capture());
+        verify(testStatsService).createTestStats(any());
 
         assertThat(res.getName(), is(testDto.getName()));
 
@@ -257,6 +283,8 @@ class TestServiceImplTest {
         // then
         verify(testRepository).findById(testId);
         verify(testRepository).save(testCaptor.capture());
+        verify(testStatsService).deleteTestStats(testId);
+        verify(testStatsService).createTestStats(testId);
 
         assertThat(res.getName(), is(testDto.getName()));
 
@@ -468,6 +496,8 @@ class TestServiceImplTest {
         // then
         verify(testRepository).findById(testId);
         verify(testRepository).delete(test);
+        verify(testStatsService).deleteTestStats(testId);
+        verify(testSnapshotCache).invalidate(testId);
     }
 
     @org.junit.jupiter.api.Test
@@ -511,12 +541,14 @@ class TestServiceImplTest {
     void whenGetTestById_givenTestExist_thenReturnTest() {
         // given
         String testId = "qwer-1234";
-        Test test = Test.builder().id(testId).name("First test").build();
+        User educator = User.builder().id("rewq-4321").email("jane.doe@mail.com").role(UserRole.EDUCATOR).build();
+        Subject subject = Subject.builder().id("1234-qwer").educator(educator).build();
+        Test test = Test.builder().id(testId).subject(subject).name("First test").build();
 
         // when
         when(testRepository.findById(testId)).thenReturn(Optional.of(test));
 
-        TestDto res = testService.getTestById(testId);
+        TestDto res = testService.getTestById(testId, educator);
 
         // then
         verify(testRepository).findById(testId);
@@ -525,6 +557,123 @@ class TestServiceImplTest {
         assertThat(res.getName(), is(test.getName()));
     }
 
+    @org.junit.jupiter.api.Test
+    void whenGetTestById_givenTestHasBeenFetchedBefore_thenReturnCachedTest() {
+        // given
+        String testId = "qwer-1234";
+        User educator = User.builder().id("rewq-4321").email("jane.doe@mail.com").role(UserRole.EDUCATOR).build();
+        Subject subject = Subject.builder().id("1234-qwer").educator(educator).build();
+        Test test = Test.builder().id(testId).subject(subject).name("First test").build();
+
+        // when
+        when(testRepository.findById(testId)).thenReturn(Optional.of(test));
+
+        TestDto first = testService.getTestById(testId, educator);
+        TestDto second = testService.getTestById(testId, educator);
+
+        // then
+        verify(testRepository, times(1)).findById(testId);
+
+        assertThat(second, is(first));
+        assertThat(testSnapshotCache.getStats().hitCount(), is(1L));
+        assertThat(testSnapshotCache.getStats().missCount(), is(1L));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGetTestById_givenReturnedTestIsModified_thenCachedTestIsUnchanged() {
+        // given
+        String testId = "qwer-1234";
+        User educator = User.builder().id("rewq-4321").email("jane.doe@mail.com").role(UserRole.EDUCATOR).build();
+        Subject subject = Subject.builder().id("1234-qwer").educator(educator).build();
+
+        Option option = Option.builder().id(1L).option("a").correct(true).build();
+        Question question = Question.builder().id(1L).question("What is the correct answer?").options(Set.of(option)).build();
+        Test test = Test.builder().id(testId).subject(subject).name("First test").questions(Set.of(question)).build();
+
+        // when
+        when(testRepository.findById(testId)).thenReturn(Optional.of(test));
+
+        TestDto first = testService.getTestById(testId, educator);
+        first.setName("Changed");
+        first.getQuestions().iterator().next().getOptions().iterator().next().setCorrect(false);
+
+        TestDto second = testService.getTestById(testId, educator);
+
+        // then
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getName(), is("First test"));
+        assertThat(second.getQuestions().iterator().next().getOptions().iterator().next().isCorrect(), is(true));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGetExam_givenTestExist_thenRenderExamWithoutAnswerKey() throws Exception {
+        // given
+        String testId = "qwer-1234";
+
+        Set<Option> options = Set.of(
+                Option.builder().id(2L).option("Lorem ipsum dolor sit amet, consectetur adipiscing elit").correct(true).build(),
+                Option.builder().id(1L).option("Lorem ipsum dolor sit amet, consectetur adipiscing elit").build()
+        );
+        Question question = Question.builder().id(1L).question("What is the correct answer?").options(options).build();
+        Test test = Test.builder().id(testId).name("First test").questions(Set.of(question)).build();
+
+        // when
+        when(testRepository.findById(testId)).thenReturn(Optional.of(test));
+
+        RenderedExam res = testService.getExam(testId);
+
+        // then
+        String body = new String(res.getBody(), StandardCharsets.UTF_8);
+        assertThat(body, containsString("\"name\":\"First test\""));
+        assertThat(body, not(containsString("correct\":")));
+        assertThat(body.indexOf("\"id\":1"), lessThan(body.indexOf("\"id\":2")));
+
+        assertThat(res.getEtag(), matchesPattern("\"[0-9a-f]{32}\""));
+        assertThat(res.hasGzipBody(), is(true));
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(res.getGzipBody()))) {
+            assertThat(gzip.readAllBytes(), is(res.getBody()));
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGetExam_givenExamHasBeenFetchedBefore_thenReturnRenderedExam() {
+        // given
+        String testId = "qwer-1234";
+        Test test = Test.builder().id(testId).name("First test").build();
+
+        // when
+        when(testRepository.findById(testId)).thenReturn(Optional.of(test));
+
+        RenderedExam first = testService.getExam(testId);
+        RenderedExam second = testService.getExam(testId);
+
+        // then
+        verify(testRepository, times(1)).findById(testId);
+        verify(examRenderer, times(1)).render(test);
+
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGetExam_givenSnapshotHasBeenInvalidated_thenRenderExamAgain() {
+        // given
+        String testId = "qwer-1234";
+        Test test = Test.builder().id(testId).name("First test").build();
+
+        // when
+        when(testRepository.findById(testId)).thenReturn(Optional.of(test));
+
+        RenderedExam first = testService.getExam(testId);
+        testSnapshotCache.invalidate(testId);
+        RenderedExam second = testService.getExam(testId);
+
+        // then
+        verify(testRepository, times(2)).findById(testId);
+        verify(examRenderer, times(2)).render(test);
+
+        assertThat(second, is(not(sameInstance(first))));
+    }
+
     @org.junit.jupiter.api.Test
     void whenGetTestById_givenTestDoesntExist_thenThrowException() {
         // given
@@ -534,10 +683,29 @@ class TestServiceImplTest {
         when(testRepository.findById(testId)).thenReturn(Optional.empty());
 
         // then
-        assertThrows(ResourceNotFoundException.class, () -> testService.getTestById(testId));
+        assertThrows(ResourceNotFoundException.class, () -> testService.getTestById(testId, new User()));
         verify(testRepository).findById(testId);
     }
 
+    @org.junit.jupiter.api.Test
+    void whenGetTestById_givenUserIsNotTheEducator_thenThrowForbidden() {
+        // given
+        String testId = "qwer-1234";
+        User educator = User.builder().id("rewq-4321").email("jane.doe@mail.com").role(UserRole.EDUCATOR).build();
+        Subject subject = Subject.builder().id("1234-qwer").educator(educator).build();
+        User student = User.builder().id("1234-qwer").email("john.doe@mail.com").role(UserRole.STUDENT).build();
+
+        Option option = Option.builder().id(1L).option("a").correct(true).build();
+        Question question = Question.builder().id(1L).question("What is the correct answer?").options(Set.of(option)).build();
+        Test test = Test.builder().id(testId).subject(subject).name("First test").questions(Set.of(question)).build();
+
+        // when
+        when(testRepository.findById(testId)).thenReturn(Optional.of(test));
+
+        // then
+        assertThrows(ForbiddenException.class, () -> testService.getTestById(testId, student));
+    }
+
     @org.junit.jupiter.api.Test
     void whenGetTestsBySubjectId_givenTestsWithGivenSubjectIdExist_thenReturnTests() {
         // given
@@ -552,15 +720,41 @@ class TestServiceImplTest {
 
         // when
         when(subjectService.getSubjectEntity(subjectId)).thenReturn(subject);
-        when(testRepository.findBySubject(subject)).thenReturn(tests);
+        when(testRepository.findBySubject(eq(subject), any(Pageable.class))).thenReturn(new SliceImpl<>(tests));
 
-        List<TestDto> res = testService.getTestsBySubjectId(subjectId);
+        PageDto<TestDto> res = testService.getTestsBySubjectId(subjectId, new User(), new PageRequestDto());
 
         // then
         verify(subjectService).getSubjectEntity(subjectId);
-        verify(testRepository).findBySubject(subject);
+        verify(testRepository).findBySubject(eq(subject), any(Pageable.class));
 
-        assertThat(res, hasSize(2));
+        assertThat(res.getItems(), hasSize(2));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGetTestsBySubjectId_givenUserIsNotTheEducator_thenReturnTestsWithoutQuestions() {
+        // given
+        String subjectId = "1234-qwer";
+
+        User educator = User.builder().id("rewq-4321").email("jane.doe@mail.com").role(UserRole.EDUCATOR).build();
+        User student = User.builder().id("qwer-1234").email("john.doe@mail.com").role(UserRole.STUDENT).build();
+        Subject subject = Subject.builder().id(subjectId).educator(educator).build();
+
+        Option option = Option.builder().id(1L).option("a").correct(true).build();
+        Question question = Question.builder().id(1L).question("What is the correct answer?").options(Set.of(option)).build();
+        Test test = Test.builder().id("1234").subject(subject).name("First test").questions(Set.of(question)).build();
+
+        // when
+        when(subjectService.getSubjectEntity(subjectId)).thenReturn(subject);
+        when(testRepository.findBySubject(eq(subject), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(test)));
+
+        PageDto<TestDto> educatorRes = testService.getTestsBySubjectId(subjectId, educator, new PageRequestDto());
+        PageDto<TestDto> studentRes = testService.getTestsBySubjectId(subjectId, student, new PageRequestDto());
+
+        // then
+        assertThat(educatorRes.getItems().get(0).getQuestions(), hasSize(1));
+        assertThat(studentRes.getItems().get(0).getName(), is("First test"));
+        assertThat(studentRes.getItems().get(0).getQuestions(), is(nullValue()));
     }
 
     @org.junit.jupiter.api.Test
@@ -574,15 +768,15 @@ class TestServiceImplTest {
 
         // when
         when(subjectService.getSubjectEntity(subjectId)).thenReturn(subject);
-        when(testRepository.findBySubject(subject)).thenReturn(tests);
+        when(testRepository.findBySubject(eq(subject), any(Pageable.class))).thenReturn(new SliceImpl<>(tests));
 
-        List<TestDto> res = testService.getTestsBySubjectId(subjectId);
+        PageDto<TestDto> res = testService.getTestsBySubjectId(subjectId, new User(), new PageRequestDto());
 
         // then
         verify(subjectService).getSubjectEntity(subjectId);
-        verify(testRepository).findBySubject(subject);
+        verify(testRepository).findBySubject(eq(subject), any(Pageable.class));
 
-        assertThat(res, hasSize(0));
+        assertThat(res.getItems(), hasSize(0));
     }
 
     @org.junit.jupiter.api.Test
@@ -594,7 +788,7 @@ class TestServiceImplTest {
         when(subjectService.getSubjectEntity(subjectId)).thenThrow(ResourceNotFoundException.class);
 
         // then
-        assertThrows(ResourceNotFoundException.class, () -> testService.getTestsBySubjectId(subjectId));
+        assertThrows(ResourceNotFoundException.class, () -> testService.getTestsBySubjectId(subjectId, new User(), new PageRequestDto()));
         verify(subjectService).getSubjectEntity(subjectId);
     }
 
@@ -0,0 +1,236 @@
+package com.example.testing.service.impl;
+
+import com.example.testing.exceptions.ForbiddenException;
+import com.example.testing.exceptions.ResourceNotFoundException;
+import com.example.testing.model.User;
+import com.example.testing.model.UserRole;
+import com.example.testing.model.attempt.AttemptAnswer;
+import com.example.testing.model.attempt.AttemptQuestion;
+import com.example.testing.model.attempt.AttemptResult;
+import com.example.testing.model.test.Question;
+import com.example.testing.model.test.Test;
+import com.example.testing.payload.stats.TestStatsDto;
+import com.example.testing.repository.QuestionStatsRepository;
+import com.example.testing.repository.TestRepository;
+import com.example.testing.repository.TestScoreBucketRepository;
+import com.example.testing.repository.TestStatsRepository;
+import com.example.testing.repository.projection.QuestionStatsTotals;
+import com.example.testing.repository.projection.ScoreBucketTotals;
+import com.example.testing.repository.projection.TestStatsTotals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TestStatsServiceImplTest {
+    @Mock
+    TestStatsRepository testStatsRepository;
+    @Mock
+    TestScoreBucketRepository scoreBucketRepository;
+    @Mock
+    QuestionStatsRepository questionStatsRepository;
+    @Mock
+    TestRepository testRepository;
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    TestStatsServiceImpl testStatsService;
+
+    @BeforeEach
+    void setUp() {
+        testStatsService = new TestStatsServiceImpl(
+                testStatsRepository, scoreBucketRepository, questionStatsRepository,
+                testRepository, transactionManager, 1
+        );
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenCreateTestStats_thenInsertMissingRowsOfEveryStripe() {
+        // given
+        String testId = "1234-qwer";
+
+        // when
+        testStatsService.createTestStats(testId);
+
+        // then
+        verify(testRepository).flush();
+        verify(testStatsRepository).insertMissingShard(testId, 0);
+        verify(scoreBucketRepository, times(10)).insertMissingBucket(eq(testId), eq(0), anyInt());
+        verify(questionStatsRepository).insertMissingQuestions(testId, 0);
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenCreateMissingTestStats_givenTestsMissStripes_thenCreateStripesOfEachTestInOwnTransaction() {
+        // when
+        when(testStatsRepository.findTestIdsWithMissingShards(1)).thenReturn(List.of("1234-qwer", "4321-qwer"));
+
+        testStatsService.createMissingTestStats();
+
+        // then
+        verify(testStatsRepository).insertMissingShard("1234-qwer", 0);
+        verify(testStatsRepository).insertMissingShard("4321-qwer", 0);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenRecordAttempt_givenStripeExists_thenIncrementCountersOfAnsweredQuestions() {
+        // given
+        String testId = "1234-qwer";
+        AttemptResult attempt = buildAttempt(testId);
+
+        // when
+        when(testStatsRepository.addScore(testId, 0, 1, 1L)).thenReturn(1);
+        when(scoreBucketRepository.increment(testId, 0, 3)).thenReturn(1);
+        when(questionStatsRepository.incrementAnswered(testId, 0, Set.of(1L, 2L))).thenReturn(2);
+
+        testStatsService.recordAttempt(attempt);
+
+        // then
+        verify(questionStatsRepository).incrementAnswered(testId, 0, Set.of(1L, 2L));
+        verify(questionStatsRepository).incrementCorrect(testId, 0, Set.of(1L));
+        verifyNoInteractions(transactionManager);
+        verify(testStatsRepository, never()).insertMissingShard(anyString(), anyInt());
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenRecordAttempt_givenStripeDoesntExist_thenThrowExceptionWithoutCreatingStripe() {
+        // given
+        String testId = "1234-qwer";
+        AttemptResult attempt = buildAttempt(testId);
+
+        // when
+        when(testStatsRepository.addScore(testId, 0, 1, 1L)).thenReturn(0);
+
+        // then
+        assertThrows(IllegalStateException.class, () -> testStatsService.recordAttempt(attempt));
+        verify(testStatsRepository, never()).insertMissingShard(anyString(), anyInt());
+        verify(scoreBucketRepository, never()).increment(anyString(), anyInt(), anyInt());
+        verify(questionStatsRepository, never()).incrementAnswered(anyString(), anyInt(), anySet());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGetTestStats_givenUserIsEducator_thenReturnMergedStats() {
+        // given
+        String testId = "1234-qwer";
+        User educator = User.builder().id("qwer-1234").email("j.doe@mail.com").role(UserRole.EDUCATOR).build();
+
+        TestStatsTotals totals = projection(TestStatsTotals.class, Map.of(
+                "attempts", 4L, "scoreSum", 8L, "scoreSquaresSum", 20L, "lowestScore", 1, "highestScore", 3
+        ));
+        List<ScoreBucketTotals> buckets = List.of(
+                projection(ScoreBucketTotals.class, Map.of("bucket", 3, "attempts", 1L)),
+                projection(ScoreBucketTotals.class, Map.of("bucket", 9, "attempts", 3L))
+        );
+        List<QuestionStatsTotals> questions = List.of(
+                projection(QuestionStatsTotals.class, Map.of("questionId", 1L, "answered", 4L, "correct", 2L))
+        );
+
+        // when
+        when(testRepository.findEducatorById(testId)).thenReturn(Optional.of(educator));
+        when(testStatsRepository.sumByTestId(testId)).thenReturn(totals);
+        when(scoreBucketRepository.sumByTestId(testId)).thenReturn(buckets);
+        when(questionStatsRepository.sumByTestId(testId)).thenReturn(questions);
+
+        TestStatsDto res = testStatsService.getTestStats(testId, educator);
+
+        // then
+        assertThat(res.getAttempts(), is(4L));
+        assertThat(res.getAverageScore(), is(2.0));
+        assertThat(res.getScoreStandardDeviation(), is(1.0));
+        assertThat(res.getLowestScore(), is(1));
+        assertThat(res.getHighestScore(), is(3));
+
+        assertThat(res.getHistogram(), hasSize(10));
+        assertThat(res.getHistogram().get(3).getAttempts(), is(1L));
+        assertThat(res.getHistogram().get(9).getAttempts(), is(3L));
+        assertThat(res.getHistogram().get(9).getToPercent(), is(100));
+
+        assertThat(res.getQuestions(), hasSize(1));
+        assertThat(res.getQuestions().get(0).getCorrectRate(), is(0.5));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGetTestStats_givenUserIsNotEducator_thenThrowException() {
+        // given
+        String testId = "1234-qwer";
+        User user = User.builder().id("qwer-1234").email("j.doe@mail.com").role(UserRole.EDUCATOR).build();
+        User other = User.builder().id("1234-qwer").email("jane.doe@mail.com").role(UserRole.EDUCATOR).build();
+
+        // when
+        when(testRepository.findEducatorById(testId)).thenReturn(Optional.of(other));
+
+        // then
+        assertThrows(ForbiddenException.class, () -> testStatsService.getTestStats(testId, user));
+        verifyNoInteractions(testStatsRepository);
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenGetTestStats_givenTestDoesntExist_thenThrowException() {
+        // given
+        String testId = "1234-qwer";
+        User user = User.builder().id("qwer-1234").email("j.doe@mail.com").role(UserRole.EDUCATOR).build();
+
+        // when
+        when(testRepository.findEducatorById(testId)).thenReturn(Optional.empty());
+
+        // then
+        assertThrows(ResourceNotFoundException.class, () -> testStatsService.getTestStats(testId, user));
+    }
+
+    @org.junit.jupiter.api.Test
+    void whenDeleteTestStats_thenDeleteAllStripes() {
+        // given
+        String testId = "1234-qwer";
+
+        // when
+        testStatsService.deleteTestStats(testId);
+
+        // then
+        verify(testStatsRepository).deleteByTestId(testId);
+        verify(scoreBucketRepository).deleteByTestId(testId);
+        verify(questionStatsRepository).deleteByTestId(testId);
+    }
+
+    private AttemptResult buildAttempt(String testId) {
+        AttemptQuestion correct = AttemptQuestion.builder()
+                .question(Question.builder().id(1L).build())
+                .answers(Set.of(AttemptAnswer.builder().id(1L).build()))
+                .score(1).maxScore(1).build();
+        AttemptQuestion wrong = AttemptQuestion.builder()
+                .question(Question.builder().id(2L).build())
+                .answers(Set.of(AttemptAnswer.builder().id(2L).build()))
+                .score(0).maxScore(1).build();
+        AttemptQuestion unanswered = AttemptQuestion.builder()
+                .question(Question.builder().id(3L).build())
+                .answers(Set.of())
+                .score(0).maxScore(1).build();
+
+        return AttemptResult.builder()
+                .test(Test.builder().id(testId).build())
+                .attemptQuestions(Set.of(correct, wrong, unanswered))
+                .score(1)
+                .maxScore(3)
+                .build();
+    }
+
+    private <T> T projection(Class<T> type, Map<String, Object> values) {
+        return new SpelAwareProxyProjectionFactory().createProjection(type, new HashMap<>(values));
+    }
+}
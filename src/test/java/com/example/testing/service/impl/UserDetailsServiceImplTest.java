@@ -53,4 +53,20 @@ class UserDetailsServiceImplTest {
         assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername(email));
         verify(userRepository).findByEmail(email);
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenUpdatePassword_whenUserExist_thenSaveNewPassword() {
+        // given
+        String email = "j.doe@mail.com";
+        User user = User.builder().email(email).password("$2a$04$old").build();
+
+        // when
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+        UserDetails res = userDetailsService.updatePassword(user, "$2a$10$new");
+
+        // then
+        verify(userRepository).save(user);
+        assertThat(res.getPassword(), Matchers.is("$2a$10$new"));
+    }
+}